@@ -0,0 +1,65 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.Canonicalizer;
+import com.example.fpoe_sudoku.model.board.PuzzleSeeds;
+
+import java.util.Arrays;
+
+/**
+ * Measures how many grids and puzzles per second {@link Canonicalizer} reduces to their canonical
+ * hash, for the 6x6 and 9x9 geometries.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.CanonicalizerBenchmark [hashes]}.
+ * A fixed set of seeded boards is generated first and hashed repeatedly, so generation time is
+ * not measured. The number of distinct hashes in the set is printed as a sanity check.
+ */
+public class CanonicalizerBenchmark {
+    // Number of distinct boards hashed in a round robin.
+    private static final int BOARDS = 1000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of hashes per geometry and kind (default 200000).
+     */
+    public static void main(String[] args) {
+        int hashes = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        System.out.printf("%-26s %14s %14s %10s%n", "geometry", "grids/s", "puzzles/s", "distinct");
+        for (BoardGeometry geometry : new BoardGeometry[]{BoardGeometry.SIX, BoardGeometry.NINE}) {
+            int[][] puzzles = new int[BOARDS][];
+            int[][] solutions = new int[BOARDS][];
+            for (int i = 0; i < BOARDS; i++) {
+                Board board = PuzzleSeeds.generate(geometry, 42, i);
+                puzzles[i] = board.toArray();
+                solutions[i] = board.solutionToArray();
+            }
+
+            Canonicalizer canonicalizer = new Canonicalizer(geometry);
+            long distinct = Arrays.stream(solutions).mapToLong(canonicalizer::hash).distinct().count();
+            int rounds = geometry.getSize() > 6 ? Math.max(1, hashes / 10) : hashes;
+
+            // First pass warms up the JIT, second pass is measured
+            double gridsPerSecond = 0;
+            double puzzlesPerSecond = 0;
+            long sink = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    sink += canonicalizer.hash(solutions[i % BOARDS]);
+                }
+                gridsPerSecond = rounds / ((System.nanoTime() - start) / 1e9);
+
+                start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    sink += canonicalizer.hash(puzzles[i % BOARDS], solutions[i % BOARDS]);
+                }
+                puzzlesPerSecond = rounds / ((System.nanoTime() - start) / 1e9);
+            }
+            System.out.printf("%-26s %14.0f %14.0f %10d%s%n", geometry, gridsPerSecond, puzzlesPerSecond,
+                    distinct, sink == 42 ? " " : "");
+        }
+    }
+}
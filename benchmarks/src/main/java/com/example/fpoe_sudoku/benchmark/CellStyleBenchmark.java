@@ -0,0 +1,127 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the CSS pass that follows a move on a 9x9 board of TextFields, styled the old way
+ * (a full inline style string set on every state change) and the current way (a stylesheet with
+ * one pseudo-class per cell state).
+ * <p>
+ * Every simulated move switches one cell between the valid and invalid states, then times
+ * {@code applyCss()} and {@code layout()} on the board, which is what the next pulse does.
+ * The board is put in a Scene but never shown, so no rendering is measured. Without a display,
+ * run it with the Monocle headless platform on the class path and
+ * {@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}. On a machine
+ * without the native font libraries JavaFX needs for text, pass {@code --regions} to style plain
+ * Regions instead of TextFields: the style resolution is the same, only the text is missing.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.CellStyleBenchmark [moves] [--regions]}.
+ */
+public class CellStyleBenchmark {
+    private static final int SIZE = 9;
+
+    private static final String FONT = "-fx-font-size: 12px; -fx-font-weight: bold; ";
+    private static final String VALID_STYLE = FONT
+            + "-fx-background-color: #000000; -fx-text-fill: #ffffff; "
+            + "-fx-border-color: #ffffff; -fx-border-width: 2px;";
+    private static final String INVALID_STYLE = FONT
+            + "-fx-background-color: white; -fx-text-fill: #000000; "
+            + "-fx-border-color: red; -fx-border-width: 3px;";
+
+    private static final PseudoClass VALID = PseudoClass.getPseudoClass("valid");
+    private static final PseudoClass INVALID = PseudoClass.getPseudoClass("invalid");
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of measured moves per variant (default 20000), and
+     *             {@code --regions} to style Regions instead of TextFields.
+     * @throws InterruptedException if interrupted while waiting for the JavaFX thread.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int moves = 20_000;
+        boolean regions = false;
+        for (String arg : args) {
+            if (arg.equals("--regions")) {
+                regions = true;
+            } else {
+                moves = Integer.parseInt(arg);
+            }
+        }
+        int measured = moves;
+        boolean textFields = !regions;
+
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.startup(() -> {
+            try {
+                System.out.printf("%-14s %10s %10s %10s%n", "styling", "mean (us)", "p50 (us)", "p99 (us)");
+                for (int round = 0; round < 2; round++) {
+                    // The first round only warms up the JIT and the CSS caches
+                    report("inline", measure(false, measured, textFields), round == 1);
+                    report("pseudo-class", measure(true, measured, textFields), round == 1);
+                }
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+
+    private static LatencyHistogram measure(boolean pseudoClasses, int moves, boolean textFields) {
+        GridPane board = new GridPane();
+        Region[] cells = new Region[SIZE * SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            Region cell = textFields ? new TextField(String.valueOf(i % SIZE + 1)) : new Region();
+            cell.setPrefSize(30, 30);
+            if (pseudoClasses) {
+                cell.getStyleClass().add("sudoku-cell");
+                cell.setStyle(FONT);
+                cell.pseudoClassStateChanged(VALID, true);
+            } else {
+                cell.setStyle(VALID_STYLE);
+            }
+            cells[i] = cell;
+            board.add(cell, i % SIZE, i / SIZE);
+        }
+        if (pseudoClasses) {
+            board.getStylesheets().add(CellStyleBenchmark.class
+                    .getResource("/com/example/fpoe_sudoku/sudoku-board.css").toExternalForm());
+        }
+        new Scene(board);
+        board.applyCss();
+        board.layout();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int move = 0; move < moves; move++) {
+            Region cell = cells[move * 7 % cells.length];
+            boolean invalid = move / cells.length % 2 == 0;
+            long start = System.nanoTime();
+            if (pseudoClasses) {
+                cell.pseudoClassStateChanged(VALID, !invalid);
+                cell.pseudoClassStateChanged(INVALID, invalid);
+            } else {
+                cell.setStyle(invalid ? INVALID_STYLE : VALID_STYLE);
+            }
+            board.applyCss();
+            board.layout();
+            latency.record(System.nanoTime() - start);
+        }
+        return latency;
+    }
+
+    private static void report(String label, LatencyHistogram latency, boolean print) {
+        if (print) {
+            System.out.printf("%-14s %10.1f %10.1f %10.1f%n", label, latency.getMean() / 1e3,
+                    latency.getPercentile(50) / 1e3, latency.getPercentile(99) / 1e3);
+        }
+    }
+}
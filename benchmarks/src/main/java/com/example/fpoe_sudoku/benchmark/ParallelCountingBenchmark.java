@@ -0,0 +1,64 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.solver.DancingLinksSolver;
+import com.example.fpoe_sudoku.model.solver.ParallelSolver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Measures the speedup of {@link ParallelSolver} over a single {@link DancingLinksSolver} when proving
+ * that large puzzles have a unique solution, for every pool size from 1 to the number of cores.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.ParallelCountingBenchmark [size] [puzzles]}.
+ */
+public class ParallelCountingBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional board size (default 16) and number of puzzles (default 10).
+     */
+    public static void main(String[] args) {
+        BoardGeometry geometry = BoardGeometry.ofSize(args.length > 0 ? Integer.parseInt(args[0]) : 16);
+        int puzzles = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int size = geometry.getSize();
+
+        // Longer carving budget than the default so the uniqueness proofs take a while
+        int[][] grids = new int[puzzles][geometry.getCellCount()];
+        for (int[] grid : grids) {
+            Board board = new Board(geometry, 100);
+            for (int index = 0; index < grid.length; index++) {
+                grid[index] = board.getBoard().get(index / size).get(index % size);
+            }
+        }
+
+        DancingLinksSolver sequential = new DancingLinksSolver(geometry);
+        time(grids, sequential::hasUniqueSolution); // Warm-up
+        long baseline = time(grids, sequential::hasUniqueSolution);
+        System.out.printf("%s, %d puzzles%n", geometry, puzzles);
+        System.out.printf("%-12s %12s %10s%n", "threads", "total (ms)", "speedup");
+        System.out.printf("%-12s %12.1f %10s%n", "sequential", baseline / 1e6, "1.00");
+
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelSolver parallel = new ParallelSolver(geometry, pool, ParallelSolver.DEFAULT_SPLIT_DEPTH);
+            time(grids, parallel::hasUniqueSolution); // Warm-up
+            long elapsed = time(grids, parallel::hasUniqueSolution);
+            System.out.printf("%-12d %12.1f %10.2f%n", threads, elapsed / 1e6, baseline / (double) elapsed);
+            pool.shutdown();
+        }
+    }
+
+    private static long time(int[][] grids, Predicate<int[]> check) {
+        long start = System.nanoTime();
+        for (int[] grid : grids) {
+            if (!check.test(grid)) {
+                throw new IllegalStateException("Generated puzzle is not unique");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
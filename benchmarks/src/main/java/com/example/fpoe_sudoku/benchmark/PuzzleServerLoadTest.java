@@ -0,0 +1,150 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.cli.PuzzleServer;
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load test of the {@link PuzzleServer}: a number of clients send requests back to
+ * back for a fixed time, and the harness reports the throughput and the latency percentiles of
+ * the successful requests, plus how many were shed with 503.
+ * <p>
+ * Without {@code --url}, an embedded server is started on a free localhost port with the given
+ * {@code --threads} and {@code --queue}, so the backpressure can be seen by running more clients
+ * than workers plus queue slots. A client that gets a 503 waits {@code --backoff-ms} before its
+ * next request, as a well-behaved client would; with no backoff the clients spend the CPU on
+ * retries. The first second of every run only warms up and is not counted.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.PuzzleServerLoadTest [--url http://127.0.0.1:8080]
+ * [--path /puzzle?size=9] [--clients C] [--seconds S] [--threads T] [--queue Q] [--backoff-ms B]}.
+ */
+public class PuzzleServerLoadTest {
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the command line arguments.
+     * @throws Exception if the embedded server cannot start or a client thread is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        String path = "/puzzle?size=9";
+        int clients = 8;
+        int seconds = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 16;
+        long backoffMillis = 10;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--url" -> url = value;
+                case "--path" -> path = value;
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--queue" -> queue = Integer.parseInt(value);
+                case "--backoff-ms" -> backoffMillis = Long.parseLong(value);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            i++;
+        }
+
+        PuzzleServer server = null;
+        if (url == null) {
+            server = new PuzzleServer(0, threads, queue);
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort();
+            System.out.printf("Embedded server: %d workers, queue %d%n", threads, queue);
+        }
+        URL target = new URL(url + path);
+        System.out.printf("%d clients on %s for %d s%n", clients, target, seconds);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder ok = new LongAdder();
+        LongAdder busy = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long warmupEnd = System.nanoTime() + 1_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+
+        long backoff = backoffMillis;
+        List<Thread> clientThreads = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start - end >= 0) {
+                        return;
+                    }
+                    int status;
+                    try {
+                        status = request(target, buffer);
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    long now = System.nanoTime();
+                    if (status == 503 && backoff > 0) {
+                        try {
+                            Thread.sleep(backoff);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    if (start - warmupEnd < 0) {
+                        continue;
+                    }
+                    if (status == 200) {
+                        ok.increment();
+                        latency.record(now - start);
+                    } else if (status == 503) {
+                        busy.increment();
+                    } else {
+                        failed.increment();
+                    }
+                }
+            }, "load-client-" + client);
+            thread.start();
+            clientThreads.add(thread);
+        }
+        for (Thread thread : clientThreads) {
+            thread.join();
+        }
+        if (server != null) {
+            server.stop();
+        }
+
+        System.out.printf("ok %d, busy (503) %d, failed %d%n", ok.sum(), busy.sum(), failed.sum());
+        System.out.printf("%.0f requests/s, %.0f ok/s%n",
+                (ok.sum() + busy.sum() + failed.sum()) / (double) seconds, ok.sum() / (double) seconds);
+        System.out.printf("latency of ok requests: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6, latency.getMax() / 1e6);
+    }
+
+    /**
+     * Sends one GET request and reads the whole answer, so the connection can be kept alive.
+     *
+     * @return the status code.
+     */
+    private static int request(URL target, byte[] buffer) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) target.openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (body != null) {
+                while (body.read(buffer) >= 0) {
+                    // Drain the body
+                }
+            }
+        }
+        return status;
+    }
+}
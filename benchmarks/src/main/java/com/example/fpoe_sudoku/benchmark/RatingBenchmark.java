@@ -0,0 +1,47 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzleSeeds;
+import com.example.fpoe_sudoku.model.rating.Difficulty;
+import com.example.fpoe_sudoku.model.rating.DifficultyRater;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Measures how many 9x9 puzzles per second a {@link DifficultyRater} rates, and prints how the
+ * seeded puzzles spread over the difficulties.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.RatingBenchmark [puzzles]}.
+ */
+public class RatingBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of puzzles to rate (default 2000).
+     */
+    public static void main(String[] args) {
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        BoardGeometry geometry = BoardGeometry.NINE;
+        DifficultyRater rater = new DifficultyRater(geometry);
+
+        int[][] cells = new int[puzzles][];
+        for (int i = 0; i < puzzles; i++) {
+            cells[i] = PuzzleSeeds.generate(geometry, 42, i).toArray();
+        }
+
+        // First pass warms up the JIT, second pass is measured
+        Map<Difficulty, Integer> spread = new EnumMap<>(Difficulty.class);
+        double perSecond = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            spread.clear();
+            long start = System.nanoTime();
+            for (int[] puzzle : cells) {
+                spread.merge(rater.rate(puzzle).getDifficulty(), 1, Integer::sum);
+            }
+            perSecond = puzzles / ((System.nanoTime() - start) / 1e9);
+        }
+        System.out.printf("%s: %.0f puzzles/s, %s%n", geometry, perSecond, spread);
+    }
+}
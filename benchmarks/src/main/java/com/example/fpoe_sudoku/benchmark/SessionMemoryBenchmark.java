@@ -0,0 +1,144 @@
+package com.example.fpoe_sudoku.benchmark;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.game.GameState;
+import com.example.fpoe_sudoku.model.game.SessionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the heap taken by each headless session of a {@link SessionManager}, and how many
+ * moves per second the sessions accept from several threads.
+ * <p>
+ * The sessions are opened twice: once as new games of a few shared puzzles, the way a server
+ * deals out pooled puzzles, and once with a puzzle of their own, which also pays for the clues
+ * and the solution. Every session plays a few moves, so its journal is allocated too. The heap
+ * in use is read after repeated garbage collections, so run with a fixed heap (e.g.
+ * {@code -Xms2g -Xmx2g}) for steady numbers.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.example.fpoe_sudoku.benchmark.SessionMemoryBenchmark
+ * [sessions] [moves] [threads]}.
+ */
+public class SessionMemoryBenchmark {
+
+    // Distinct puzzles the shared sessions are dealt from
+    private static final int PUZZLES = 16;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of sessions (default 100000), moves per session (default 5)
+     *             and threads for the throughput run (default the number of processors).
+     * @throws InterruptedException if a player thread is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        BoardGeometry geometry = BoardGeometry.NINE;
+        GameState[] puzzles = new GameState[PUZZLES];
+        for (int i = 0; i < PUZZLES; i++) {
+            puzzles[i] = new GameState(new Board(geometry));
+        }
+        System.out.printf("%d sessions of %s, %d moves each%n", sessions, geometry, moves);
+
+        long[] ids = new long[sessions];
+        SessionManager shared = open(sessions, moves, ids, i -> puzzles[i % PUZZLES].newGame(), "shared puzzle");
+        play(shared, ids, threads, geometry);
+        shared = null;
+
+        SessionManager own = open(sessions, moves, ids, i -> {
+            GameState puzzle = puzzles[i % PUZZLES];
+            int[] clues = new int[puzzle.getCellCount()];
+            int[] solution = new int[puzzle.getCellCount()];
+            for (int cell = 0; cell < clues.length; cell++) {
+                clues[cell] = puzzle.isGiven(cell) ? puzzle.getSolution(cell) : 0;
+                solution[cell] = puzzle.getSolution(cell);
+            }
+            return new GameState(geometry, clues, solution);
+        }, "own puzzle");
+        System.out.printf("open sessions at the end: %d%n", own.size());
+    }
+
+    /**
+     * Source of the game of each session.
+     */
+    private interface GameFactory {
+        GameState create(int session);
+    }
+
+    /**
+     * Opens the sessions, plays some moves in each and prints the heap they take.
+     *
+     * @return the manager, kept reachable by the caller while the heap is measured.
+     */
+    private static SessionManager open(int sessions, int moves, long[] ids, GameFactory games, String label) {
+        long before = usedHeap();
+        SessionManager manager = new SessionManager();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < sessions; i++) {
+            GameState game = games.create(i);
+            ids[i] = manager.open(game);
+            for (int move = 0; move < moves; move++) {
+                int cell = game.randomEmptyCell(random);
+                if (cell >= 0) {
+                    manager.play(ids[i], cell, 1 + random.nextInt(game.getGeometry().getSize()));
+                }
+            }
+        }
+        long after = usedHeap();
+        System.out.printf("%-14s %10.1f MB in use, %6.0f bytes/session%n", label,
+                (after - before) / 1e6, (after - before) / (double) sessions);
+        return manager;
+    }
+
+    /**
+     * Plays random moves on random sessions from several threads for two seconds.
+     */
+    private static void play(SessionManager manager, long[] ids, int threads, BoardGeometry geometry)
+            throws InterruptedException {
+        LongAdder played = new LongAdder();
+        long end = System.nanoTime() + 2_000_000_000L;
+        List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread player = new Thread(() -> {
+                int size = geometry.getSize();
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < end) {
+                    long id = ids[random.nextInt(ids.length)];
+                    manager.play(id, random.nextInt(geometry.getCellCount()), random.nextInt(size + 1));
+                    if (random.nextInt(4) == 0) {
+                        manager.undo(id);
+                    }
+                    count++;
+                }
+                played.add(count);
+            }, "session-player-" + t);
+            player.start();
+            players.add(player);
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        System.out.printf("%d threads: %.0f moves/s%n", threads, played.sum() / 2.0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
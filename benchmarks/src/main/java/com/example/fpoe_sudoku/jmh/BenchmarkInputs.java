@@ -0,0 +1,34 @@
+package com.example.fpoe_sudoku.jmh;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.Random;
+
+/**
+ * Seeded puzzle inputs shared by the benchmarks, so every run measures the same boards.
+ */
+final class BenchmarkInputs {
+    // Carving budget used to prepare inputs; larger boards are capped instead of fully minimized.
+    private static final long BUDGET_MILLIS = 200;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Generates a fixed set of puzzles.
+     *
+     * @param geometry the shape of the puzzles.
+     * @param count    the number of puzzles.
+     * @param seed     the seed of the generator.
+     * @return the puzzles, always the same for the same arguments.
+     */
+    static Board[] puzzles(BoardGeometry geometry, int count, long seed) {
+        Random random = new Random(seed);
+        Board[] boards = new Board[count];
+        for (int i = 0; i < count; i++) {
+            boards[i] = new Board(geometry, BUDGET_MILLIS, random);
+        }
+        return boards;
+    }
+}
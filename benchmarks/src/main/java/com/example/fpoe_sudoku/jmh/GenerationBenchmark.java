@@ -0,0 +1,50 @@
+package com.example.fpoe_sudoku.jmh;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of full puzzle generation (solution fill plus clue carving).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+    @Param({"6", "9"})
+    int size;
+
+    @Param({"42"})
+    long seed;
+
+    private BoardGeometry geometry;
+    private Random random;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        geometry = BoardGeometry.ofSize(size);
+        random = new Random(seed);
+    }
+
+    @Benchmark
+    public Board generate() {
+        return new Board(geometry, 0, random);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.fpoe_sudoku.jmh;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.hint.Hint;
+import com.example.fpoe_sudoku.model.hint.HintEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of finding a logical hint on freshly generated puzzles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HintBenchmark {
+    // Number of seeded puzzles the benchmark cycles through.
+    private static final int PUZZLES = 16;
+
+    @Param({"6", "9", "16"})
+    int size;
+
+    @Param({"42"})
+    long seed;
+
+    private HintEngine[] engines;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BoardGeometry geometry = BoardGeometry.ofSize(size);
+        Board[] boards = BenchmarkInputs.puzzles(geometry, PUZZLES, seed);
+        engines = new HintEngine[PUZZLES];
+        for (int i = 0; i < PUZZLES; i++) {
+            BitBoard current = new BitBoard(geometry);
+            current.load(boards[i].toArray());
+            engines[i] = new HintEngine(current);
+        }
+    }
+
+    @Benchmark
+    public Hint findHint() {
+        int i = next;
+        next = (i + 1) % PUZZLES;
+        return engines[i].findHint();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.fpoe_sudoku.jmh;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.game.MoveJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the per-keystroke work done by {@code Game}: storing and validating a move, and the
+ * completion check that follows it. Moves cycle through a seeded sequence of empty cells, each
+ * set to its solution digit or, every third move, to a wrong digit. The same sequence, recorded in
+ * a {@link MoveJournal}, is used to time the replay of a whole session (reported per move).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    // Number of moves in the replayed session.
+    private static final int SESSION_MOVES = 10_000;
+
+    @Param({"6", "9", "16"})
+    int size;
+
+    @Param({"42"})
+    long seed;
+
+    private BitBoard current;
+    private BitBoard solved;
+    private int[] moveCells;
+    private int[] moveDigits;
+    private int next;
+    private int[] puzzle;
+    private BitBoard replayed;
+    private long[] session;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BoardGeometry geometry = BoardGeometry.ofSize(size);
+        Board board = BenchmarkInputs.puzzles(geometry, 1, seed)[0];
+        puzzle = board.toArray();
+        int[] solution = board.solutionToArray();
+
+        current = new BitBoard(geometry);
+        current.load(puzzle);
+        solved = new BitBoard(geometry);
+        solved.load(solution);
+
+        int empty = 0;
+        for (int value : puzzle) {
+            if (value == 0) {
+                empty++;
+            }
+        }
+        moveCells = new int[empty];
+        moveDigits = new int[empty];
+        for (int cell = 0, i = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] == 0) {
+                moveCells[i] = cell;
+                moveDigits[i] = i % 3 == 2 ? solution[cell] % size + 1 : solution[cell];
+                i++;
+            }
+        }
+
+        MoveJournal journal = new MoveJournal();
+        int[] cells = puzzle.clone();
+        for (int i = 0; i < SESSION_MOVES; i++) {
+            int cell = moveCells[i % empty];
+            int digit = i / empty % 2 == 0 ? moveDigits[i % empty] : 0;
+            journal.record(cell, cells[cell], digit);
+            cells[cell] = digit;
+        }
+        session = journal.toArray();
+        replayed = new BitBoard(geometry);
+    }
+
+    /**
+     * One key release: store the digit and validate it against its row, column and block.
+     */
+    @Benchmark
+    public boolean placeAndValidate() {
+        int i = next;
+        next = i + 1 == moveCells.length ? 0 : i + 1;
+        int row = moveCells[i] / size;
+        int col = moveCells[i] % size;
+        current.place(row, col, moveDigits[i]);
+        return current.isValid(row, col, moveDigits[i]);
+    }
+
+    /**
+     * Rebuilds a finished session from its journal: reload the puzzle, then replay every move.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SESSION_MOVES)
+    public int replaySession() {
+        replayed.load(puzzle);
+        MoveJournal.replay(session, session.length, replayed);
+        return replayed.getFilledCount();
+    }
+
+    /**
+     * Completion check on a fully and correctly filled board, the most expensive case.
+     */
+    @Benchmark
+    public boolean completionCheck() {
+        return solved.isSolved();
+    }
+}
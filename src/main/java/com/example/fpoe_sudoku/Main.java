@@ -1,5 +1,8 @@
 package com.example.fpoe_sudoku;
 
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzlePool;
+import com.example.fpoe_sudoku.monitoring.SudokuMetrics;
 import com.example.fpoe_sudoku.view.SudokuWelcomeStage;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -27,7 +30,8 @@ public class Main extends Application {
      * The start method is called after the init method has returned,
      * and after the system is ready for the application to begin running.
      * <p>
-     * This implementation initializes and displays the welcome screen of the Sudoku game.
+     * This implementation publishes the {@link SudokuMetrics} MBean, starts filling the puzzle
+     * pool in the background and initializes and displays the welcome screen of the Sudoku game.
      *
      * @param primaryStage the primary stage for this application, onto which
      * the application scene can be set. It is provided by the platform.
@@ -35,6 +39,8 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
+        SudokuMetrics.register();
+        PuzzlePool.shared(BoardGeometry.SIX);
         SudokuWelcomeStage.getInstance();
     }
 }
@@ -0,0 +1,352 @@
+package com.example.fpoe_sudoku.cli;
+
+import com.example.fpoe_sudoku.model.bank.FingerprintIndex;
+import com.example.fpoe_sudoku.model.bank.PuzzleBank;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.Canonicalizer;
+import com.example.fpoe_sudoku.model.board.PuzzleSeeds;
+import com.example.fpoe_sudoku.model.board.PuzzleText;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless entry point that generates a bank of puzzles without starting JavaFX.
+ * <p>
+ * Puzzles are generated in parallel on a fixed pool of workers. Worker {@code w} generates the
+ * puzzles whose index is congruent to {@code w} modulo the number of workers. Every puzzle gets its
+ * own random source from {@link PuzzleSeeds#generator(long, long)}, so the same seed always
+ * produces the same puzzle at the same index, whatever the number of workers (as long as no time
+ * budget is set). Every worker encodes its puzzles
+ * into a private buffer and flushes whole records to a shared {@link FileChannel}.
+ * <p>
+ * Output is either one {@link PuzzleText} line per puzzle or a binary {@link PuzzleBank}.
+ * <p>
+ * With {@code --dedupe}, every puzzle's fingerprint is added to a persistent
+ * {@link FingerprintIndex} and puzzles whose fingerprint is already there are dropped, so
+ * {@code --count} becomes the number of candidates. Reusing the same index file with a new seed
+ * resumes an interrupted job without writing any puzzle twice: when the index already holds
+ * fingerprints, the puzzles are appended to the existing output (whose bank header count is
+ * updated) instead of replacing it. The fingerprint is the hash of the
+ * puzzle as generated, or with {@code --canonical} the hash of its {@link Canonicalizer canonical
+ * form}, which also drops puzzles that are only a symmetry of one already written. A new index is
+ * sized for {@code --capacity} fingerprints (by default {@code --count}); its size cannot change
+ * afterwards, so a job that will be resumed several times should set it to the final total.
+ * <p>
+ * Fingerprints only enter the index once their records have been written to the output: every
+ * flush drops the records whose fingerprint is already known, writes the others and then adds
+ * their fingerprints, all under the output lock. If a job is killed, the puzzles still in the
+ * workers' buffers are lost but can be generated again; a partial record at the end of the output
+ * is cut off when the job is resumed.
+ * <p>
+ * Usage: {@code BatchGenerator --count N [--threads T] [--size 6|9|12|16|25] [--seed S]
+ * [--budget-ms B] [--format text|bank] [--dedupe index.bin [--capacity C] [--canonical]] --out puzzles.txt}
+ */
+public class BatchGenerator {
+    // Size of each worker's output buffer.
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final BoardGeometry geometry;
+    private final int count;
+    private final int threads;
+    private final long seed;
+    private final long budgetMillis;
+    private final Path output;
+    private final boolean bank;
+    private final int recordLength;
+    private final FingerprintIndex index; // null when duplicates are kept
+    private final boolean canonical;
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * Creates a batch generator.
+     *
+     * @param geometry     the shape of the puzzles.
+     * @param count        the number of puzzles to generate.
+     * @param threads      the number of workers.
+     * @param seed         the base seed of the puzzles' random sources.
+     * @param budgetMillis the carving budget per puzzle in milliseconds, or 0 for no limit.
+     * @param output       the file to write the puzzles to.
+     * @param bank         true to write a binary puzzle bank, false for text lines.
+     * @param index        the fingerprints of the puzzles already written, or null to keep duplicates.
+     * @param canonical    true to fingerprint puzzles by their canonical form.
+     */
+    public BatchGenerator(BoardGeometry geometry, int count, int threads, long seed,
+                          long budgetMillis, Path output, boolean bank,
+                          FingerprintIndex index, boolean canonical) {
+        this.geometry = geometry;
+        this.count = count;
+        this.threads = threads;
+        this.seed = seed;
+        this.budgetMillis = budgetMillis;
+        this.output = output;
+        this.bank = bank;
+        this.recordLength = bank ? PuzzleBank.recordBytes(geometry) : PuzzleText.lineLength(geometry);
+        this.index = index;
+        this.canonical = canonical;
+    }
+
+    /**
+     * Parses the command line and runs the generator.
+     *
+     * @param args the command line arguments.
+     * @throws Exception if the output cannot be written or a worker fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int count = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int size = 6;
+        long seed = System.nanoTime();
+        long budgetMillis = 0;
+        Path output = null;
+        boolean bank = false;
+        Path dedupe = null;
+        long capacity = 0;
+        boolean canonical = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--size" -> size = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--budget-ms" -> budgetMillis = Long.parseLong(value);
+                case "--out" -> output = Paths.get(value);
+                case "--format" -> bank = value.equals("bank");
+                case "--dedupe" -> dedupe = Paths.get(value);
+                case "--capacity" -> capacity = Long.parseLong(value);
+                case "--canonical" -> {
+                    canonical = true;
+                    continue;
+                }
+                default -> {
+                    usage("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            i++;
+        }
+        if (count <= 0 || threads <= 0 || output == null) {
+            usage("--count and --out are required");
+            return;
+        }
+
+        FingerprintIndex index = dedupe != null ? FingerprintIndex.open(dedupe, Math.max(capacity, count)) : null;
+        try {
+            BatchGenerator generator = new BatchGenerator(BoardGeometry.ofSize(size), count, threads,
+                    seed, budgetMillis, output, bank, index, canonical);
+            System.out.printf("Generating %d %s puzzles on %d threads (seed %d)%n",
+                    count, generator.geometry, threads, seed);
+            if (index != null) {
+                System.out.printf("Skipping the %d puzzles already in %s%n", index.size(), dedupe);
+                if (index.size() + count > index.getCapacity()) {
+                    System.out.printf("Warning: the index only has room for %d more puzzles%n",
+                            index.getCapacity() - index.size());
+                }
+            }
+            generator.run();
+        } finally {
+            if (index != null) {
+                index.close();
+            }
+        }
+    }
+
+    /**
+     * Generates all puzzles, printing progress every second and the final throughput.
+     *
+     * @throws Exception if the output cannot be written or a worker fails.
+     */
+    public void run() throws Exception {
+        long start = System.nanoTime();
+        boolean resume = index != null && index.size() > 0 && Files.exists(output);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = resume
+                ? FileChannel.open(output, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long existing = resume ? existingRecords(channel) : 0;
+            if (resume) {
+                System.out.printf("Appending to the %d puzzles already in %s%n", existing, output);
+            }
+            if (bank) {
+                ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_BYTES);
+                PuzzleBank.writeHeader(geometry, existing + (index != null ? 0 : count), header);
+                header.flip();
+                channel.write(header, 0);
+            }
+            channel.position(channel.size());
+
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                int id = worker;
+                results.add(workers.submit(() -> {
+                    generate(id, channel);
+                    return null;
+                }));
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                report(start, "progress");
+            }
+            for (Future<?> result : results) {
+                result.get(); // Propagate worker failures
+            }
+            if (bank && index != null) {
+                // The count is only known now that duplicates have been dropped
+                ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_BYTES);
+                PuzzleBank.writeHeader(geometry, existing + generated.get(), header);
+                header.flip();
+                channel.write(header, 0);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        report(start, "done");
+    }
+
+    /**
+     * Checks the output of an earlier run before appending to it, and cuts off a record that a
+     * killed job left half written.
+     *
+     * @param channel the output, opened for reading and writing.
+     * @return the number of whole records in the output.
+     * @throws IOException if the output cannot be read or holds puzzles of another shape.
+     */
+    private long existingRecords(FileChannel channel) throws IOException {
+        long headerBytes = 0;
+        if (bank && channel.size() > 0) {
+            // The count of a killed job's header is stale, so only the fields before it must match
+            ByteBuffer expected = ByteBuffer.allocate(PuzzleBank.HEADER_BYTES);
+            PuzzleBank.writeHeader(geometry, 0, expected);
+            ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.position() < PuzzleBank.HEADER_BYTES
+                    || !header.flip().limit(12).equals(expected.flip().limit(12))) {
+                throw new IOException(output + " is not a bank of " + geometry + " puzzles");
+            }
+            headerBytes = PuzzleBank.HEADER_BYTES;
+        }
+        long records = Math.max(0, channel.size() - headerBytes) / recordLength;
+        channel.truncate(headerBytes + records * recordLength);
+        return records;
+    }
+
+    /**
+     * Generates the puzzles assigned to one worker and streams them to the channel.
+     *
+     * @param worker  the worker index.
+     * @param channel the shared output channel.
+     * @throws IOException if the output cannot be written.
+     */
+    private void generate(int worker, FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, recordLength));
+        // Fingerprints of the records in the buffer, added to the index once they are written
+        long[] fingerprints = index != null ? new long[buffer.capacity() / recordLength] : null;
+        int buffered = 0;
+        Canonicalizer canonicalizer = canonical ? new Canonicalizer(geometry) : null;
+        for (int i = worker; i < count; i += threads) {
+            Board board = new Board(geometry, budgetMillis, PuzzleSeeds.generator(seed, i));
+            if (buffer.remaining() < recordLength) {
+                flush(buffer, channel, fingerprints, buffered);
+                buffered = 0;
+            }
+            if (index != null) {
+                int[] puzzle = board.toArray();
+                long fingerprint = canonicalizer != null
+                        ? canonicalizer.hash(puzzle, board.solutionToArray())
+                        : Canonicalizer.hashOf(puzzle);
+                if (index.contains(fingerprint)) {
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                fingerprints[buffered] = fingerprint;
+            }
+            if (bank) {
+                PuzzleBank.writeRecord(geometry, board.toArray(), board.solutionToArray(), 0, buffer);
+            } else {
+                PuzzleText.writeLine(board.toArray(), board.solutionToArray(), buffer);
+            }
+            buffered++;
+            generated.incrementAndGet();
+        }
+        flush(buffer, channel, fingerprints, buffered);
+    }
+
+    /**
+     * Writes the buffered records and then records their fingerprints. With an index, records
+     * whose fingerprint another worker has written since they were generated, or that repeat an
+     * earlier record of the same buffer, are dropped first.
+     *
+     * @param buffer       the records, one every {@code recordLength} bytes.
+     * @param channel      the shared output channel.
+     * @param fingerprints the fingerprint of every buffered record, or null without an index.
+     * @param buffered     the number of buffered records.
+     * @throws IOException if the output cannot be written.
+     */
+    private void flush(ByteBuffer buffer, FileChannel channel, long[] fingerprints, int buffered)
+            throws IOException {
+        synchronized (channel) {
+            int kept = buffered;
+            if (fingerprints != null) {
+                kept = 0;
+                for (int i = 0; i < buffered; i++) {
+                    long fingerprint = fingerprints[i];
+                    boolean duplicate = index.contains(fingerprint);
+                    for (int j = 0; j < kept && !duplicate; j++) {
+                        duplicate = fingerprints[j] == fingerprint;
+                    }
+                    if (duplicate) {
+                        generated.decrementAndGet();
+                        duplicates.incrementAndGet();
+                        continue;
+                    }
+                    if (kept != i) {
+                        buffer.put(kept * recordLength, buffer, i * recordLength, recordLength);
+                    }
+                    fingerprints[kept++] = fingerprint;
+                }
+                buffer.position(kept * recordLength);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            for (int i = 0; fingerprints != null && i < kept; i++) {
+                index.add(fingerprints[i]);
+            }
+        }
+        buffer.clear();
+    }
+
+    private void report(long start, String label) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long done = generated.get();
+        long dropped = duplicates.get();
+        System.out.printf("%s: %d/%d puzzles in %.1f s (%.0f puzzles/s, %d duplicates dropped)%n",
+                label, done + dropped, count, seconds, (done + dropped) / seconds, dropped);
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchGenerator --count N [--threads T] [--size 6|9|12|16|25]"
+                + " [--seed S] [--budget-ms B] [--format text|bank] [--dedupe index.bin"
+                + " [--capacity C] [--canonical]]"
+                + " --out puzzles.txt");
+    }
+}
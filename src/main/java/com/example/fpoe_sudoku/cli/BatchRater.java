@@ -0,0 +1,238 @@
+package com.example.fpoe_sudoku.cli;
+
+import com.example.fpoe_sudoku.model.bank.PuzzleBank;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzleText;
+import com.example.fpoe_sudoku.model.rating.Difficulty;
+import com.example.fpoe_sudoku.model.rating.DifficultyRater;
+import com.example.fpoe_sudoku.model.rating.Rating;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless entry point that rates every puzzle of a file and writes a graded {@link PuzzleBank}.
+ * <p>
+ * The input is either a puzzle bank or a text file of fixed-length {@link PuzzleText} lines, as
+ * written by {@link BatchGenerator}. Both formats have fixed-size records, so the input is split
+ * into chunks that workers claim one at a time; each worker rates its chunk with its own
+ * {@link DifficultyRater} and writes the records at their final position in the output, so the
+ * output keeps the input order without any coordination between workers.
+ * <p>
+ * Usage: {@code BatchRater --in puzzles.txt|puzzles.bank --out graded.bank [--threads T]}
+ */
+public class BatchRater {
+    // Number of records a worker claims at a time.
+    private static final int CHUNK_RECORDS = 4096;
+
+    private final Path input;
+    private final Path output;
+    private final int threads;
+    private final AtomicLong nextChunk = new AtomicLong();
+    private final LongAdder rated = new LongAdder();
+    private final LongAdder[] levels = new LongAdder[Difficulty.values().length];
+
+    private PuzzleBank bank;
+    private FileChannel text;
+    private BoardGeometry geometry;
+    private long count;
+
+    /**
+     * Creates a batch rater.
+     *
+     * @param input   the puzzle bank or text file to rate.
+     * @param output  the bank file to write.
+     * @param threads the number of workers.
+     */
+    public BatchRater(Path input, Path output, int threads) {
+        this.input = input;
+        this.output = output;
+        this.threads = threads;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Parses the command line and runs the rater.
+     *
+     * @param args the command line arguments.
+     * @throws Exception if the files cannot be read or written or a worker fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--in" -> input = Paths.get(value);
+                case "--out" -> output = Paths.get(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                default -> {
+                    usage("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            i++;
+        }
+        if (input == null || output == null || threads <= 0) {
+            usage("--in and --out are required");
+            return;
+        }
+        new BatchRater(input, output, threads).run();
+    }
+
+    /**
+     * Rates all puzzles, printing progress every second and the final level counts.
+     *
+     * @throws Exception if the files cannot be read or written or a worker fails.
+     */
+    public void run() throws Exception {
+        openInput();
+        System.out.printf("Rating %d %s puzzles on %d threads%n", count, geometry, threads);
+
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_BYTES);
+            PuzzleBank.writeHeader(geometry, count, header);
+            header.flip();
+            channel.write(header, 0);
+
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                results.add(workers.submit(() -> {
+                    rateChunks(channel);
+                    return null;
+                }));
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                report(start, "progress");
+            }
+            for (Future<?> result : results) {
+                result.get(); // Propagate worker failures
+            }
+        } finally {
+            workers.shutdownNow();
+            closeInput();
+        }
+        report(start, "done");
+        for (Difficulty level : Difficulty.values()) {
+            System.out.printf("  %-8s %d%n", level, levels[level.ordinal()].sum());
+        }
+    }
+
+    private void openInput() throws IOException {
+        try {
+            bank = PuzzleBank.open(input);
+            geometry = bank.getGeometry();
+            count = bank.size();
+            return;
+        } catch (IOException e) {
+            // Not a bank; read it as fixed-length text lines
+        }
+        text = FileChannel.open(input, StandardOpenOption.READ);
+        ByteBuffer first = ByteBuffer.allocate(2 * BoardGeometry.MAX_SIZE * BoardGeometry.MAX_SIZE + 2);
+        text.read(first, 0);
+        first.flip();
+        int separator = 0;
+        while (separator < first.limit() && first.get(separator) != ':') {
+            separator++;
+        }
+        geometry = BoardGeometry.ofSize((int) Math.round(Math.sqrt(separator)));
+        int lineLength = PuzzleText.lineLength(geometry);
+        if (geometry.getCellCount() != separator || text.size() % lineLength != 0) {
+            text.close();
+            throw new IOException("Input is neither a puzzle bank nor fixed-length puzzle:solution lines");
+        }
+        count = text.size() / lineLength;
+    }
+
+    private void closeInput() throws IOException {
+        if (bank != null) {
+            bank.close();
+        }
+        if (text != null) {
+            text.close();
+        }
+    }
+
+    /**
+     * Claims chunks of records until none are left, rating each record and writing the graded
+     * chunk at its position in the output.
+     *
+     * @param channel the output channel.
+     * @throws IOException if a file cannot be read or written.
+     */
+    private void rateChunks(FileChannel channel) throws IOException {
+        DifficultyRater rater = new DifficultyRater(geometry);
+        int recordBytes = PuzzleBank.recordBytes(geometry);
+        int lineLength = PuzzleText.lineLength(geometry);
+        ByteBuffer out = ByteBuffer.allocateDirect(CHUNK_RECORDS * recordBytes);
+        ByteBuffer in = text != null ? ByteBuffer.allocateDirect(CHUNK_RECORDS * lineLength) : null;
+        int[] puzzle = new int[geometry.getCellCount()];
+        int[] solution = new int[geometry.getCellCount()];
+
+        long first;
+        while ((first = nextChunk.getAndIncrement() * CHUNK_RECORDS) < count) {
+            int records = (int) Math.min(CHUNK_RECORDS, count - first);
+            if (in != null) {
+                in.clear().limit(records * lineLength);
+                long position = first * lineLength;
+                while (in.hasRemaining()) {
+                    if (text.read(in, position + in.position()) < 0) {
+                        throw new IOException("Unexpected end of " + input);
+                    }
+                }
+                in.flip();
+            }
+
+            out.clear();
+            for (int i = 0; i < records; i++) {
+                if (in != null) {
+                    PuzzleText.readLine(in, puzzle, solution);
+                } else {
+                    bank.readPuzzle(first + i, puzzle);
+                    bank.readSolution(first + i, solution);
+                }
+                Rating rating = rater.rate(puzzle);
+                levels[rating.getDifficulty().ordinal()].increment();
+                PuzzleBank.writeRecord(geometry, puzzle, solution, rating.getDifficulty().getCode(), out);
+            }
+            out.flip();
+            long position = PuzzleBank.HEADER_BYTES + first * recordBytes;
+            while (out.hasRemaining()) {
+                channel.write(out, position + out.position());
+            }
+            rated.add(records);
+        }
+    }
+
+    private void report(long start, String label) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long done = rated.sum();
+        System.out.printf("%s: %d/%d puzzles in %.1f s (%.0f puzzles/s)%n",
+                label, done, count, seconds, done / seconds);
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchRater --in puzzles.txt|puzzles.bank --out graded.bank [--threads T]");
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.fpoe_sudoku.cli;
+
+import com.example.fpoe_sudoku.model.bank.PuzzleBank;
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzleSeeds;
+import com.example.fpoe_sudoku.model.board.PuzzleText;
+import com.example.fpoe_sudoku.model.rating.Difficulty;
+import com.example.fpoe_sudoku.model.rating.DifficultyRater;
+import com.example.fpoe_sudoku.model.solver.DancingLinksSolver;
+import com.example.fpoe_sudoku.utils.Log;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless HTTP service that generates, solves and validates puzzles for other local tools,
+ * built on the JDK's {@link HttpServer} without starting JavaFX.
+ * <p>
+ * Endpoints (grids use the one-character-per-cell {@link PuzzleText} format):
+ * <ul>
+ *     <li>{@code GET /puzzle?size=9&difficulty=medium&seed=42}: a new puzzle, answered as a
+ *     {@code puzzle:solution} line, or as one binary {@link PuzzleBank} record with
+ *     {@code format=bank}. Every parameter is optional. With a seed the answer is reproducible:
+ *     candidates {@code 0, 1, 2, ...} of that seed are generated until one has the requested
+ *     difficulty. The {@code X-Difficulty} and {@code X-Seed} headers describe the puzzle.
+ *     A request gets at most {@code --puzzle-ms} milliseconds in all, and is answered with
+ *     {@code 503} when they run out; a seeded puzzle is never returned cut short by that limit,
+ *     since it would not be reproducible.</li>
+ *     <li>{@code POST /solve}: the body (or the {@code grid} parameter) is a puzzle; the answer is
+ *     its solution, with {@code X-Solutions: 1} or {@code 2} for a puzzle with several. The search
+ *     gets at most {@code --solve-ms} milliseconds; a puzzle not solved by then is answered with
+ *     {@code 422}, like one without a solution.</li>
+ *     <li>{@code POST /validate}: the body (or the {@code grid} parameter) is a partly filled
+ *     grid; the answer is {@code ok}, {@code solved} or {@code conflict}, followed by a line with
+ *     the indices of the conflicting cells.</li>
+ * </ul>
+ * Requests run on a fixed pool of workers with a bounded queue. When the queue is full the server
+ * sheds load instead of queueing without limit: the request is answered right away, on the
+ * accepting thread, with {@code 503} and {@code Retry-After}, so latency stays bounded and
+ * clients know to back off. The time limits of the endpoints make sure that the workers free up
+ * even when clients send grids that are very slow to solve.
+ * <p>
+ * Usage: {@code PuzzleServer [--port 8080] [--threads T] [--queue Q] [--puzzle-ms 10000]
+ * [--solve-ms 2000]}
+ */
+public class PuzzleServer {
+    // Candidates generated per request while looking for a difficulty.
+    private static final int MAX_CANDIDATES = 64;
+
+    /** Default time allowed for one {@code /puzzle} request, in milliseconds. */
+    public static final long DEFAULT_PUZZLE_MILLIS = 10_000;
+    /** Default time allowed for one {@code /solve} request, in milliseconds. */
+    public static final long DEFAULT_SOLVE_MILLIS = 2_000;
+
+    private static final String TEXT = "text/plain; charset=utf-8";
+    private static final String BINARY = "application/octet-stream";
+
+    // JDK property that disables Nagle's algorithm on accepted connections. The server writes the
+    // headers and the body separately, and with Nagle plus delayed ACKs a keep-alive client waits
+    // about 40 ms for every small answer.
+    private static final String NO_DELAY = "sun.net.httpserver.nodelay";
+
+    // Marks the pool's threads, so a request run by the rejection handler can be recognized.
+    private static final ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> false);
+
+    // One rater per worker thread and board size, since raters are not thread-safe.
+    private static final ThreadLocal<DifficultyRater[]> RATERS =
+            ThreadLocal.withInitial(() -> new DifficultyRater[BoardGeometry.MAX_SIZE + 1]);
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final long puzzleMillis;
+    private final long solveMillis;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a server bound to the loopback interface. It does not accept requests until
+     * {@link #start()}.
+     *
+     * @param port    the port, or 0 for any free port.
+     * @param threads the number of workers.
+     * @param queue   the number of requests that may wait for a worker.
+     * @throws IOException if the port cannot be bound.
+     */
+    public PuzzleServer(int port, int threads, int queue) throws IOException {
+        this(port, threads, queue, DEFAULT_PUZZLE_MILLIS, DEFAULT_SOLVE_MILLIS);
+    }
+
+    /**
+     * Creates a server bound to the loopback interface, with custom time limits. It does not
+     * accept requests until {@link #start()}.
+     *
+     * @param port         the port, or 0 for any free port.
+     * @param threads      the number of workers.
+     * @param queue        the number of requests that may wait for a worker.
+     * @param puzzleMillis the time allowed for one {@code /puzzle} request, in milliseconds.
+     * @param solveMillis  the time allowed for one {@code /solve} request, in milliseconds.
+     * @throws IOException if the port cannot be bound.
+     */
+    public PuzzleServer(int port, int threads, int queue, long puzzleMillis, long solveMillis)
+            throws IOException {
+        this.puzzleMillis = puzzleMillis;
+        this.solveMillis = solveMillis;
+        if (System.getProperty(NO_DELAY) == null) {
+            System.setProperty(NO_DELAY, "true");
+        }
+        AtomicInteger ids = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue),
+                task -> {
+                    Thread thread = new Thread(() -> {
+                        WORKER.set(true);
+                        task.run();
+                    }, "puzzle-worker-" + ids.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Full queue: run the exchange here, where the handlers only answer 503
+                (task, pool) -> task.run());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), queue);
+        server.setExecutor(workers);
+        server.createContext("/puzzle", guarded(this::puzzle));
+        server.createContext("/solve", guarded(this::solve));
+        server.createContext("/validate", guarded(this::validate));
+    }
+
+    /**
+     * Parses the command line and runs the server until the JVM is stopped.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 64;
+        long puzzleMillis = DEFAULT_PUZZLE_MILLIS;
+        long solveMillis = DEFAULT_SOLVE_MILLIS;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--queue" -> queue = Integer.parseInt(value);
+                case "--puzzle-ms" -> puzzleMillis = Long.parseLong(value);
+                case "--solve-ms" -> solveMillis = Long.parseLong(value);
+                default -> {
+                    usage("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            i++;
+        }
+        if (threads <= 0 || queue <= 0 || puzzleMillis <= 0 || solveMillis <= 0) {
+            usage("--threads, --queue, --puzzle-ms and --solve-ms must be positive");
+            return;
+        }
+
+        PuzzleServer server = new PuzzleServer(port, threads, queue, puzzleMillis, solveMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.printf("Serving puzzles on http://127.0.0.1:%d with %d workers (queue %d)%n",
+                server.getPort(), threads, queue);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, gives the running ones one second to finish and prints how many
+     * requests were served and shed.
+     */
+    public void stop() {
+        server.stop(1);
+        workers.shutdownNow();
+        System.out.printf("Served %d requests, rejected %d%n", served.sum(), rejected.sum());
+    }
+
+    /**
+     * @return the port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the requests answered by a worker.
+     */
+    public long getServed() {
+        return served.sum();
+    }
+
+    /**
+     * @return the requests answered with 503 because every worker was busy and the queue was full.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Wraps an endpoint with load shedding and error handling.
+     *
+     * @param endpoint the endpoint.
+     * @return the handler to register.
+     */
+    private HttpHandler guarded(HttpHandler endpoint) {
+        return exchange -> {
+            try (exchange) {
+                if (!WORKER.get()) {
+                    rejected.increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 503, TEXT, bytes("busy\n"));
+                    return;
+                }
+                served.increment();
+                try {
+                    endpoint.handle(exchange);
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 400, TEXT, bytes(e.getMessage() + "\n"));
+                } catch (IllegalStateException e) {
+                    Log.warn("No se pudo generar el sudoku: %s", e.getMessage());
+                    send(exchange, 500, TEXT, bytes(e.getMessage() + "\n"));
+                } catch (RuntimeException e) {
+                    // Never drop the connection without an answer
+                    Log.error("Error al atender %s: %s", exchange.getRequestURI(), e);
+                    send(exchange, 500, TEXT, bytes("internal error\n"));
+                }
+            }
+        };
+    }
+
+    /**
+     * {@code GET /puzzle}: generates a puzzle of the requested size and difficulty.
+     */
+    private void puzzle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        BoardGeometry geometry = BoardGeometry.ofSize(intParameter(query, "size", 9));
+        String level = parameter(query, "difficulty");
+        Difficulty wanted = level == null ? null : difficultyOf(level);
+        String seedText = parameter(query, "seed");
+        boolean seeded = seedText != null;
+        long seed = seeded ? Long.parseLong(seedText) : new SplittableRandom().nextLong();
+        long deadline = System.nanoTime() + puzzleMillis * 1_000_000;
+
+        for (int candidate = 0; candidate < MAX_CANDIDATES; candidate++) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                break;
+            }
+            // Rounded up, so the board never gives up before the request's own deadline
+            long remaining = (left + 999_999) / 1_000_000;
+            // A seeded puzzle is carved without a time budget, so it does not depend on load
+            Board board;
+            try {
+                board = new Board(geometry, seeded ? 0 : Board.DEFAULT_BUDGET_MILLIS,
+                        PuzzleSeeds.generator(seed, candidate), Board.DEFAULT_MAX_ATTEMPTS, remaining);
+            } catch (IllegalStateException e) {
+                if (System.nanoTime() - deadline > 0) {
+                    break;
+                }
+                throw e;
+            }
+            if (seeded && board.isCarvedShort()) {
+                break; // The puzzle is not the seed's
+            }
+            int[] puzzle = board.toArray();
+            Difficulty difficulty = raterOf(geometry).rate(puzzle).getDifficulty();
+            if (wanted != null && difficulty != wanted) {
+                continue;
+            }
+
+            exchange.getResponseHeaders().set("X-Difficulty", difficulty.name().toLowerCase());
+            exchange.getResponseHeaders().set("X-Seed", seed + "/" + candidate);
+            if ("bank".equals(parameter(query, "format"))) {
+                ByteBuffer record = ByteBuffer.allocate(PuzzleBank.recordBytes(geometry));
+                PuzzleBank.writeRecord(geometry, puzzle, board.solutionToArray(), difficulty.getCode(), record);
+                send(exchange, 200, BINARY, record.array());
+            } else {
+                ByteBuffer line = ByteBuffer.allocate(PuzzleText.lineLength(geometry));
+                PuzzleText.writeLine(puzzle, board.solutionToArray(), line);
+                send(exchange, 200, TEXT, line.array());
+            }
+            return;
+        }
+        if (System.nanoTime() - deadline > 0) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 503, TEXT, bytes("No puzzle within " + puzzleMillis + " ms\n"));
+            return;
+        }
+        send(exchange, 404, TEXT, bytes("No " + wanted.name().toLowerCase() + " puzzle among "
+                + MAX_CANDIDATES + " candidates\n"));
+    }
+
+    /**
+     * {@code POST /solve}: solves a puzzle.
+     */
+    private void solve(HttpExchange exchange) throws IOException {
+        int[] cells = readGrid(exchange);
+        BoardGeometry geometry = geometryOf(cells.length);
+        int[] solution = cells.clone();
+        int solutions = DancingLinksSolver.local(geometry).countAndSolve(cells, 2,
+                System.nanoTime() + solveMillis * 1_000_000, solution);
+        if (solutions < 0) {
+            send(exchange, 422, TEXT, bytes("not solved within " + solveMillis + " ms\n"));
+            return;
+        }
+        if (solutions == 0) {
+            send(exchange, 422, TEXT, bytes("unsolvable\n"));
+            return;
+        }
+        exchange.getResponseHeaders().set("X-Solutions", String.valueOf(solutions));
+        send(exchange, 200, TEXT, bytes(PuzzleText.encode(solution) + "\n"));
+    }
+
+    /**
+     * {@code POST /validate}: checks a grid against the rules.
+     */
+    private void validate(HttpExchange exchange) throws IOException {
+        int[] cells = readGrid(exchange);
+        BoardGeometry geometry = geometryOf(cells.length);
+        BitBoard board = new BitBoard(geometry);
+        board.load(cells);
+
+        StringBuilder answer = new StringBuilder(board.isSolved() ? "solved"
+                : board.isConsistent() ? "ok" : "conflict").append('\n');
+        int size = geometry.getSize();
+        String separator = "";
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0 && board.hasConflict(cell / size, cell % size)) {
+                answer.append(separator).append(cell);
+                separator = ",";
+            }
+        }
+        send(exchange, 200, TEXT, bytes(answer.append('\n').toString()));
+    }
+
+    /**
+     * Reads a grid from the {@code grid} parameter or, if there is none, from the request body.
+     *
+     * @throws IllegalArgumentException if the grid is not square or holds a digit too large for
+     *                                  its size.
+     */
+    private static int[] readGrid(HttpExchange exchange) throws IOException {
+        String text = parameter(exchange.getRequestURI().getRawQuery(), "grid");
+        if (text == null) {
+            try (InputStream body = exchange.getRequestBody()) {
+                text = new String(body.readNBytes(2 * BoardGeometry.MAX_SIZE * BoardGeometry.MAX_SIZE + 2),
+                        StandardCharsets.US_ASCII);
+            }
+        }
+        text = text.strip();
+        int separator = text.indexOf(':');
+        if (separator >= 0) {
+            text = text.substring(0, separator);
+        }
+        int[] cells = new int[text.length()];
+        int size = geometryOf(cells.length).getSize();
+        PuzzleText.decode(text, cells);
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] > size) {
+                throw new IllegalArgumentException("Digit " + text.charAt(cell) + " at cell " + cell
+                        + " does not fit a " + size + "x" + size + " grid");
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finds the standard board with a number of cells.
+     *
+     * @throws IllegalArgumentException if no standard board has that many cells.
+     */
+    private static BoardGeometry geometryOf(int cellCount) {
+        int size = (int) Math.round(Math.sqrt(cellCount));
+        if (size * size != cellCount) {
+            throw new IllegalArgumentException("A grid needs size x size cells, got " + cellCount);
+        }
+        return BoardGeometry.ofSize(size);
+    }
+
+    private static DifficultyRater raterOf(BoardGeometry geometry) {
+        DifficultyRater[] raters = RATERS.get();
+        int size = geometry.getSize();
+        if (raters[size] == null) {
+            raters[size] = new DifficultyRater(geometry);
+        }
+        return raters[size];
+    }
+
+    private static Difficulty difficultyOf(String name) {
+        try {
+            return Difficulty.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown difficulty: " + name);
+        }
+    }
+
+    /**
+     * Returns the value of a query parameter, or null if it is missing.
+     */
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static int intParameter(String query, String name, int defaultValue) {
+        String value = parameter(query, name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, String type, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", type);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: PuzzleServer [--port 8080] [--threads T] [--queue Q]"
+                + " [--puzzle-ms 10000] [--solve-ms 2000]");
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.fpoe_sudoku.controller;
 
 import com.example.fpoe_sudoku.model.game.Game;
+import com.example.fpoe_sudoku.model.save.GameSaver;
+import com.example.fpoe_sudoku.model.save.SavedGame;
 import com.example.fpoe_sudoku.model.user.User;
+import com.example.fpoe_sudoku.view.BoardRenderer;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -39,19 +42,41 @@ public class SudokuGameController implements Initializable {
 
     private Game game;
     private User user;
+    private GameSaver saver;
 
     /**
      * Initializes the controller class. This method is automatically called
-     * after the FXML file has been loaded. It creates a new game instance
-     * and starts the game.
+     * after the FXML file has been loaded. It resumes the saved game if there is one,
+     * or creates a new game instance, starts the game and saves it as it is played.
      *
      * @param url            The location used to resolve relative paths for the root object, or null if the location is not known.
      * @param resourceBundle The resources used to localize the root object, or null if the root object was not localized.
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        game = new Game(boardGridPane);
+        SavedGame saved = GameSaver.load(GameSaver.defaultDirectory());
+        game = saved != null ? new Game(boardGridPane, saved) : new Game(boardGridPane);
+        // TextFields for small boards, a single canvas for large ones (or as -Dsudoku.renderer says)
+        game.setRenderer(BoardRenderer.forGeometry(game.getBoard().getGeometry()));
         game.startGame();
+
+        saver = new GameSaver(GameSaver.defaultDirectory(),
+                saved != null ? saved : SavedGame.start(game.getBoard()));
+        game.setMoveListener(saver::moveMade);
+    }
+
+    /**
+     * Stops the game's model thread, once the input still queued has run, and then stops saving
+     * the game, waiting briefly for the last moves to be written.
+     * Called when the game window is closed.
+     */
+    public void shutdown() {
+        if (game != null) {
+            game.shutdown();
+        }
+        if (saver != null) {
+            saver.close();
+        }
     }
 
     /**
@@ -80,6 +105,26 @@ public class SudokuGameController implements Initializable {
         game.provideHint(); // simplemente llamas al método
     }
 
+    /**
+     * Handles the undo button action. Takes back the player's last move.
+     *
+     * @param event The action event triggered by clicking the undo button.
+     */
+    @FXML
+    private void handleUndoButton(ActionEvent event) {
+        game.undo();
+    }
+
+    /**
+     * Handles the redo button action. Makes again the last move taken back.
+     *
+     * @param event The action event triggered by clicking the redo button.
+     */
+    @FXML
+    private void handleRedoButton(ActionEvent event) {
+        game.redo();
+    }
+
 }
 
 
@@ -0,0 +1,296 @@
+package com.example.fpoe_sudoku.model.bank;
+
+import com.example.fpoe_sudoku.model.board.Canonicalizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Off-heap set of 64-bit puzzle fingerprints, used to drop duplicates while generating millions
+ * of puzzles.
+ * <p>
+ * Fingerprints are stored in an open-addressing table of {@code long} slots with linear probing,
+ * kept outside the Java heap either in direct buffers or in a memory-mapped file. A slot holding 0
+ * is empty; entries are never removed, so {@link #add(long)} only has to compare-and-set an empty
+ * slot and any number of threads can insert at the same time without locks. A fingerprint of 0
+ * is stored as 1, which only matters if both values actually occur.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ * header (32 bytes): magic "SDKF", version (short), 2 reserved bytes, log2 of the slot count (int),
+ *                    open flag (int), fingerprint count (long), 8 reserved bytes
+ * slots:             one long per slot
+ * </pre>
+ * The table is written through the mapping, so fingerprints survive a crash of the process as
+ * soon as they are added, and survive a crash of the machine after {@link #force()}. The count in
+ * the header is only written by {@link #close()}; an index that was not closed is recounted when
+ * it is opened again. Tables larger than 1 GB are split into several buffers.
+ * <p>
+ * The capacity is fixed when the table is created: {@link #add(long)} throws once the table is
+ * {@link #MAX_LOAD} full, because longer probe sequences would slow every insert down.
+ */
+public class FingerprintIndex implements Closeable {
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 32;
+    /** Largest share of occupied slots. */
+    public static final double MAX_LOAD = 0.75;
+
+    static final int MAGIC = 0x464B4453; // "SDKF" in little-endian order
+    static final short VERSION = 1;
+
+    // Slots per buffer (1 GB), so every buffer offset fits in an int.
+    private static final int SEGMENT_BITS = 27;
+
+    private static final VarHandle SLOT =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel; // null for an in-memory index
+    private final ByteBuffer[] segments;
+    private final long mask;
+    private final int shift;
+    private final long limit;
+    private final LongAdder count = new LongAdder();
+
+    private FingerprintIndex(FileChannel channel, ByteBuffer[] segments, int capacityBits) {
+        this.channel = channel;
+        this.segments = segments;
+        this.mask = (1L << capacityBits) - 1;
+        this.shift = 64 - capacityBits;
+        this.limit = (long) ((1L << capacityBits) * MAX_LOAD);
+    }
+
+    /**
+     * Creates an index in direct memory, for a single run.
+     *
+     * @param expected the number of fingerprints the index must be able to hold.
+     * @return the empty index.
+     */
+    public static FingerprintIndex allocate(long expected) {
+        int bits = capacityBits(expected);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(bits)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) (segmentSlots(bits) * Long.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new FingerprintIndex(null, segments, bits);
+    }
+
+    /**
+     * Opens an index file, creating it if it does not exist. An existing file keeps its capacity
+     * and its fingerprints, so a job can resume where it stopped.
+     *
+     * @param path     the index file.
+     * @param expected the number of fingerprints a new index must be able to hold.
+     * @return the opened index.
+     * @throws IOException if the file cannot be opened or is not a valid index.
+     */
+    public static FingerprintIndex open(Path path, long expected) throws IOException {
+        boolean exists = Files.exists(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int bits;
+            boolean clean;
+            long stored;
+            if (exists) {
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                    throw new IOException("Not a fingerprint index file");
+                }
+                short version = header.getShort();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported fingerprint index version " + version);
+                }
+                header.getShort();
+                bits = header.getInt();
+                clean = header.getInt() == 0;
+                stored = header.getLong();
+                if (bits < 1 || bits > 40 || channel.size() < HEADER_BYTES + (Long.BYTES << bits)) {
+                    throw new IOException("Corrupt fingerprint index file");
+                }
+            } else {
+                bits = capacityBits(expected);
+                clean = true;
+                stored = 0;
+            }
+
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(bits)];
+            long bytes = segmentSlots(bits) * Long.BYTES;
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * bytes, bytes)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            FingerprintIndex index = new FingerprintIndex(channel, segments, bits);
+            index.count.add(clean ? stored : index.recount());
+            index.writeHeader(true);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a fingerprint if it is not already present. Safe to call from any number of threads.
+     *
+     * @param fingerprint the fingerprint, usually a {@link Canonicalizer} hash.
+     * @return true if the fingerprint was added, false if it was already present.
+     * @throws IllegalStateException if the index is full.
+     */
+    public boolean add(long fingerprint) {
+        long key = fingerprint == 0 ? 1 : fingerprint;
+        for (long slot = home(key), probes = 0; probes <= mask;
+             slot = (slot + 1) & mask, probes++) {
+            ByteBuffer segment = segments[(int) (slot >>> SEGMENT_BITS)];
+            int offset = offsetOf(slot);
+            long current = (long) SLOT.getAcquire(segment, offset);
+            while (current == 0) {
+                if (count.sum() >= limit) {
+                    throw new IllegalStateException("Fingerprint index is full (" + limit + " entries)");
+                }
+                if (SLOT.compareAndSet(segment, offset, 0L, key)) {
+                    count.increment();
+                    return true;
+                }
+                current = (long) SLOT.getAcquire(segment, offset);
+            }
+            if (current == key) {
+                return false;
+            }
+        }
+        throw new IllegalStateException("Fingerprint index is full");
+    }
+
+    /**
+     * Tells whether a fingerprint is present.
+     *
+     * @param fingerprint the fingerprint.
+     * @return true if the fingerprint was added before.
+     */
+    public boolean contains(long fingerprint) {
+        long key = fingerprint == 0 ? 1 : fingerprint;
+        for (long slot = home(key), probes = 0; probes <= mask;
+             slot = (slot + 1) & mask, probes++) {
+            long current = (long) SLOT.getAcquire(segments[(int) (slot >>> SEGMENT_BITS)], offsetOf(slot));
+            if (current == key) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of fingerprints in the index.
+     */
+    public long size() {
+        return count.sum();
+    }
+
+    /**
+     * @return the number of fingerprints the index can hold.
+     */
+    public long getCapacity() {
+        return limit;
+    }
+
+    /**
+     * Writes the table of a file-backed index to the storage device. Does nothing for an
+     * in-memory index.
+     */
+    public void force() {
+        if (channel != null) {
+            for (ByteBuffer segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Writes the table and the final count of a file-backed index and closes the file. The
+     * index must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            force();
+            writeHeader(false);
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader(boolean open) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putInt(Long.numberOfTrailingZeros(mask + 1));
+        header.putInt(open ? 1 : 0);
+        header.putLong(count.sum());
+        header.putLong(0);
+        header.flip();
+        channel.write(header, 0);
+        channel.force(false);
+    }
+
+    /**
+     * Counts the occupied slots of a table that was not closed properly.
+     */
+    private long recount() {
+        long occupied = 0;
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += Long.BYTES) {
+                if (segment.getLong(offset) != 0) {
+                    occupied++;
+                }
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Returns the first slot probed for a key, taken from the high bits of a Fibonacci hash so
+     * that fingerprints which are not well mixed still spread over the table.
+     */
+    private long home(long key) {
+        return (key * 0x9E3779B97F4A7C15L) >>> shift;
+    }
+
+    private static int offsetOf(long slot) {
+        return (int) (slot & ((1L << SEGMENT_BITS) - 1)) * Long.BYTES;
+    }
+
+    private static int capacityBits(long expected) {
+        long slots = (long) Math.ceil(Math.max(expected, 1) / MAX_LOAD);
+        return Math.max(10, 64 - Long.numberOfLeadingZeros(slots - 1));
+    }
+
+    private static int segmentCount(int bits) {
+        return bits <= SEGMENT_BITS ? 1 : 1 << (bits - SEGMENT_BITS);
+    }
+
+    private static long segmentSlots(int bits) {
+        return 1L << Math.min(bits, SEGMENT_BITS);
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.fpoe_sudoku.model.bank;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped bank of puzzles stored as fixed-size binary records.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ * header (32 bytes): magic "SDKB", version (short), block rows (byte), block columns (byte),
+ *                    record size (int), record count (long), 12 reserved bytes
+ * record:            solution packed at {@link #bitsPerCell(BoardGeometry)} bits per cell,
+ *                    givens mask (one bit per cell), difficulty (byte, 0 = unrated)
+ * </pre>
+ * A 6x6 record takes 20 bytes. Because records have a fixed size, record {@code i} starts at
+ * {@code HEADER_BYTES + i * recordBytes}, so any puzzle is read in constant time straight from the
+ * mapping without parsing. Files larger than 2 GB are mapped in several segments.
+ * <p>
+ * Reads use absolute buffer positions only, so a bank can be shared between threads.
+ */
+public class PuzzleBank implements Closeable {
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 32;
+
+    static final int MAGIC = 0x424B4453; // "SDKB" in little-endian order
+    static final short VERSION = 1;
+
+    private final FileChannel channel;
+    private final BoardGeometry geometry;
+    private final int recordBytes;
+    private final long count;
+    private final long recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private PuzzleBank(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not a puzzle bank file");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported puzzle bank version " + version);
+        }
+        geometry = BoardGeometry.of(header.get(), header.get());
+        recordBytes = header.getInt();
+        count = header.getLong();
+        if (recordBytes != recordBytes(geometry)
+                || channel.size() < HEADER_BYTES + count * recordBytes) {
+            throw new IOException("Corrupt puzzle bank file");
+        }
+
+        recordsPerSegment = Integer.MAX_VALUE / recordBytes;
+        int segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = i * recordsPerSegment;
+            long records = Math.min(recordsPerSegment, count - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + first * recordBytes, records * recordBytes);
+        }
+    }
+
+    /**
+     * Opens and maps a puzzle bank.
+     *
+     * @param path the bank file.
+     * @return the opened bank.
+     * @throws IOException if the file cannot be read or is not a valid bank.
+     */
+    public static PuzzleBank open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PuzzleBank(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of bits used to store one solution digit.
+     *
+     * @param geometry the shape of the board.
+     * @return the bits per cell.
+     */
+    public static int bitsPerCell(BoardGeometry geometry) {
+        return 32 - Integer.numberOfLeadingZeros(geometry.getSize());
+    }
+
+    /**
+     * Returns the size of one record in bytes.
+     *
+     * @param geometry the shape of the board.
+     * @return the record size.
+     */
+    public static int recordBytes(BoardGeometry geometry) {
+        int cells = geometry.getCellCount();
+        return (cells * bitsPerCell(geometry) + 7) / 8 + (cells + 7) / 8 + 1;
+    }
+
+    /**
+     * Writes a bank header into a buffer at its current position.
+     *
+     * @param geometry the shape of the boards.
+     * @param count    the number of records that follow.
+     * @param buffer   the buffer to write to.
+     */
+    public static void writeHeader(BoardGeometry geometry, long count, ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.put((byte) geometry.getBlockRows());
+        buffer.put((byte) geometry.getBlockCols());
+        buffer.putInt(recordBytes(geometry));
+        buffer.putLong(count);
+        buffer.put(new byte[HEADER_BYTES - 20]);
+        buffer.order(order);
+    }
+
+    /**
+     * Encodes one record into a buffer at its current position.
+     *
+     * @param geometry   the shape of the board.
+     * @param puzzle     the clues in row-major order (0 = empty).
+     * @param solution   the solution in row-major order.
+     * @param difficulty the difficulty rating, or 0 if unrated.
+     * @param buffer     the buffer to write to; it needs {@link #recordBytes(BoardGeometry)} bytes free.
+     */
+    public static void writeRecord(BoardGeometry geometry, int[] puzzle, int[] solution,
+                                   int difficulty, ByteBuffer buffer) {
+        int bits = bitsPerCell(geometry);
+        int start = buffer.position();
+        int length = recordBytes(geometry);
+        for (int i = 0; i < length; i++) {
+            buffer.put(start + i, (byte) 0);
+        }
+
+        // Solution digits, packed least significant bit first
+        for (int cell = 0; cell < solution.length; cell++) {
+            int bit = cell * bits;
+            int value = solution[cell] << (bit & 7);
+            int at = start + (bit >>> 3);
+            buffer.put(at, (byte) (buffer.get(at) | value));
+            if ((bit & 7) + bits > 8) {
+                buffer.put(at + 1, (byte) (buffer.get(at + 1) | (value >>> 8)));
+            }
+        }
+
+        // Givens mask
+        int mask = start + (solution.length * bits + 7) / 8;
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] != 0) {
+                int at = mask + (cell >>> 3);
+                buffer.put(at, (byte) (buffer.get(at) | (1 << (cell & 7))));
+            }
+        }
+
+        buffer.put(start + length - 1, (byte) difficulty);
+        buffer.position(start + length);
+    }
+
+    /**
+     * @return the shape of the puzzles in this bank.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return the number of puzzles in this bank.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Reads the clues of a puzzle.
+     *
+     * @param index  the record index.
+     * @param puzzle the array that receives the clues in row-major order (0 = empty).
+     */
+    public void readPuzzle(long index, int[] puzzle) {
+        read(index, puzzle, true);
+    }
+
+    /**
+     * Reads the solution of a puzzle.
+     *
+     * @param index    the record index.
+     * @param solution the array that receives the solution in row-major order.
+     */
+    public void readSolution(long index, int[] solution) {
+        read(index, solution, false);
+    }
+
+    /**
+     * Reads the difficulty rating of a puzzle.
+     *
+     * @param index the record index.
+     * @return the difficulty, or 0 if the puzzle is unrated.
+     */
+    public int getDifficulty(long index) {
+        MappedByteBuffer segment = segmentOf(index);
+        return segment.get(offsetOf(index) + recordBytes - 1) & 0xFF;
+    }
+
+    /**
+     * Loads a puzzle as a {@link Board}.
+     *
+     * @param index the record index.
+     * @return a board holding the puzzle and its solution.
+     */
+    public Board getBoard(long index) {
+        int[] puzzle = new int[geometry.getCellCount()];
+        int[] solution = new int[geometry.getCellCount()];
+        readPuzzle(index, puzzle);
+        readSolution(index, solution);
+        return new Board(geometry, puzzle, solution);
+    }
+
+    /**
+     * Closes the underlying file. The mappings stay valid until they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void read(long index, int[] cells, boolean givensOnly) {
+        MappedByteBuffer segment = segmentOf(index);
+        int start = offsetOf(index);
+        int bits = bitsPerCell(geometry);
+        int valueMask = (1 << bits) - 1;
+        int mask = start + (cells.length * bits + 7) / 8;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (givensOnly && (segment.get(mask + (cell >>> 3)) & (1 << (cell & 7))) == 0) {
+                cells[cell] = 0;
+                continue;
+            }
+            int bit = cell * bits;
+            int at = start + (bit >>> 3);
+            int word = segment.get(at) & 0xFF;
+            if ((bit & 7) + bits > 8) {
+                word |= (segment.get(at + 1) & 0xFF) << 8;
+            }
+            cells[cell] = (word >>> (bit & 7)) & valueMask;
+        }
+    }
+
+    private MappedByteBuffer segmentOf(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offsetOf(long index) {
+        return (int) (index % recordsPerSegment) * recordBytes;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.fpoe_sudoku.model.board;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Bitmask constraint core for a Sudoku board.
+ * <p>
+ * Cells are stored in a flat {@code byte[]} in row-major order. For every row, column and block
+ * the core keeps an occupancy bitmask (bit {@code n - 1} is set when digit {@code n} is present
+ * in that unit) plus a per-digit counter, so duplicates entered by the player are tracked
+ * correctly when one of them is cleared again. The units of the three kinds share one mask array
+ * and one counter array (rows first, then columns, then blocks), so a 9x9 core takes about half a
+ * kilobyte and many games can be kept in memory at once.
+ * <p>
+ * The core also keeps a running count of filled cells and of conflicts (every extra occurrence
+ * of a digit in a unit counts as one), so {@link #isComplete()} and {@link #isConsistent()} are
+ * answered without scanning the board.
+ * <p>
+ * {@link #isValid(int, int, int)}, {@link #place(int, int, int)} and {@link #clear(int, int)}
+ * run in constant time and never allocate.
+ */
+public class BitBoard {
+    private final BoardGeometry geometry;
+    private final int size;
+
+    // Values of every cell in row-major order (0 = empty).
+    private final byte[] cells;
+
+    // Occupancy bitmask per unit: rows at 0, columns at size, blocks at 2 * size.
+    private final int[] masks;
+
+    // Occurrences of each digit per unit, indexed as unit * size + (digit - 1).
+    private final byte[] counts;
+
+    // Number of non-empty cells.
+    private int filledCount;
+
+    // Extra occurrences of digits over all units (0 when no digit is repeated).
+    private int conflictCount;
+
+    /**
+     * Creates an empty board core.
+     *
+     * @param geometry the shape of the board.
+     */
+    public BitBoard(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = new byte[size * size];
+        this.masks = new int[3 * size];
+        this.counts = new byte[3 * size * size];
+    }
+
+    /**
+     * Creates an independent copy of another board core.
+     *
+     * @param other the board to copy.
+     */
+    public BitBoard(BitBoard other) {
+        this.geometry = other.geometry;
+        this.size = other.size;
+        this.cells = other.cells.clone();
+        this.masks = other.masks.clone();
+        this.counts = other.counts.clone();
+        this.filledCount = other.filledCount;
+        this.conflictCount = other.conflictCount;
+    }
+
+    /**
+     * Returns the shape of the board.
+     *
+     * @return the board geometry.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the number of rows (and columns) of the board.
+     *
+     * @return the board size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value stored at the given cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the digit at the cell, or 0 if it is empty.
+     */
+    public int get(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Writes a digit into a cell, replacing whatever value it held before.
+     *
+     * @param row    the row index.
+     * @param col    the column index.
+     * @param number the digit to place (1 to size), or 0 to clear the cell.
+     */
+    public void place(int row, int col, int number) {
+        int index = row * size + col;
+        int previous = cells[index];
+        if (previous == number) {
+            return;
+        }
+        if (previous != 0) {
+            remove(index, row, col, previous);
+        }
+        if (number != 0) {
+            add(index, row, col, number);
+        }
+    }
+
+    /**
+     * Empties a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     */
+    public void clear(int row, int col) {
+        place(row, col, 0);
+    }
+
+    /**
+     * Checks whether the digit at (row, col) would conflict with any other cell of its row,
+     * column or block. The cell's own value is ignored, so this can be used both before and
+     * after the digit has been placed.
+     *
+     * @param row    the row index.
+     * @param col    the column index.
+     * @param number the digit to check (1 to size).
+     * @return true if no other cell in the same row, column or block holds the digit.
+     */
+    public boolean isValid(int row, int col, int number) {
+        int index = row * size + col;
+        int block = geometry.blockOf(index);
+        if (cells[index] != number) {
+            int bit = 1 << (number - 1);
+            return ((masks[row] | masks[size + col] | masks[2 * size + block]) & bit) == 0;
+        }
+        int digit = number - 1;
+        return counts[row * size + digit] == 1
+                && counts[(size + col) * size + digit] == 1
+                && counts[(2 * size + block) * size + digit] == 1;
+    }
+
+    /**
+     * Checks whether the digit stored in a cell also appears elsewhere in its row, column or block.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell holds a digit that is repeated in one of its units.
+     */
+    public boolean hasConflict(int row, int col) {
+        int number = get(row, col);
+        return number != 0 && !isValid(row, col, number);
+    }
+
+    /**
+     * Returns the digits that are not yet used in the row, column or block of a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return a bitmask where bit {@code n - 1} is set if digit {@code n} is still available.
+     */
+    public int candidates(int row, int col) {
+        int used = masks[row] | masks[size + col] | masks[2 * size + geometry.blockOf(row * size + col)];
+        return ~used & geometry.getDigitMask();
+    }
+
+    /**
+     * Checks that no digit appears twice in any row, column or block.
+     *
+     * @return true if the board has no conflicting cells.
+     */
+    public boolean isConsistent() {
+        return conflictCount == 0;
+    }
+
+    /**
+     * Checks whether every cell holds a digit.
+     *
+     * @return true if the board has no empty cells.
+     */
+    public boolean isComplete() {
+        return filledCount == cells.length;
+    }
+
+    /**
+     * Checks whether the board is completely and correctly filled.
+     *
+     * @return true if every cell holds a digit and no digit is repeated in any unit.
+     */
+    public boolean isSolved() {
+        return filledCount == cells.length && conflictCount == 0;
+    }
+
+    /**
+     * @return the number of non-empty cells.
+     */
+    public int getFilledCount() {
+        return filledCount;
+    }
+
+    /**
+     * @return the number of extra digit occurrences over all rows, columns and blocks.
+     */
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * Replaces the contents of the board with the given cells.
+     *
+     * @param source the cell values in row-major order (0 = empty).
+     */
+    public void load(int[] source) {
+        for (int index = 0; index < cells.length; index++) {
+            place(index / size, index % size, source[index]);
+        }
+    }
+
+    /**
+     * Copies the cell values into an array, in row-major order.
+     *
+     * @param target the array to fill; it must hold at least size * size values.
+     */
+    public void copyTo(int[] target) {
+        for (int index = 0; index < cells.length; index++) {
+            target[index] = cells[index];
+        }
+    }
+
+    /**
+     * Returns a read-only view of the board as a list of rows.
+     * The view reflects later changes to the board.
+     *
+     * @return a list of lists representing the board.
+     */
+    public List<List<Integer>> asList() {
+        return new AbstractList<>() {
+            @Override
+            public List<Integer> get(int row) {
+                return new AbstractList<>() {
+                    @Override
+                    public Integer get(int col) {
+                        return BitBoard.this.get(row, col);
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void add(int index, int row, int col, int number) {
+        int digit = number - 1;
+        int bit = 1 << digit;
+        int block = geometry.blockOf(index);
+        cells[index] = (byte) number;
+        filledCount++;
+        if (++counts[row * size + digit] > 1) {
+            conflictCount++;
+        }
+        if (++counts[(size + col) * size + digit] > 1) {
+            conflictCount++;
+        }
+        if (++counts[(2 * size + block) * size + digit] > 1) {
+            conflictCount++;
+        }
+        masks[row] |= bit;
+        masks[size + col] |= bit;
+        masks[2 * size + block] |= bit;
+    }
+
+    private void remove(int index, int row, int col, int number) {
+        int digit = number - 1;
+        int bit = 1 << digit;
+        int block = geometry.blockOf(index);
+        cells[index] = 0;
+        filledCount--;
+        conflictCount -= unitRemove(row, digit, bit);
+        conflictCount -= unitRemove(size + col, digit, bit);
+        conflictCount -= unitRemove(2 * size + block, digit, bit);
+    }
+
+    /**
+     * Removes one occurrence of a digit from a unit.
+     *
+     * @return 1 if the removed occurrence was a conflict, 0 otherwise.
+     */
+    private int unitRemove(int unit, int digit, int bit) {
+        int remaining = --counts[unit * size + digit];
+        if (remaining == 0) {
+            masks[unit] &= ~bit;
+        }
+        return remaining > 0 ? 1 : 0;
+    }
+}
@@ -1,184 +1,457 @@
 package com.example.fpoe_sudoku.model.board;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import com.example.fpoe_sudoku.model.solver.DancingLinksSolver;
+import com.example.fpoe_sudoku.model.solver.ISolver;
+import com.example.fpoe_sudoku.model.solver.ParallelSolver;
+import com.example.fpoe_sudoku.monitoring.GenerationEvent;
+import com.example.fpoe_sudoku.monitoring.SudokuMetrics;
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * This class generates a 6x6 board divided into 2x3 blocks.
- * In each 2x3 block exactly one cell is assigned a random number (from 1 to 6),
- * and all the other cells are left as 0. Additionally, the placed number is not repeated
- * in any row or column across the entire board.
+ * This class generates a Sudoku puzzle whose shape is described by a {@link BoardGeometry}
+ * (6x6 with 2x3 blocks by default, up to 25x25).
+ * <p>
+ * Generation is solution-first: {@link #fillBlocks(int)} first builds a complete valid grid
+ * with randomized backtracking, always filling the most constrained cell next. Every attempt
+ * may backtrack at most {@link #DEFAULT_BACKTRACK_BUDGET} times; then the grid is wiped and a new
+ * attempt starts from the next values of the random source, up to a maximum number of attempts
+ * or an overall deadline. Then clues are removed in random order.
+ * A clue is only removed if the puzzle still has exactly one solution, which is checked with the
+ * thread's {@link DancingLinksSolver} (split over the cores by a {@link ParallelSolver} for boards
+ * of 16x16 and up), stopping as soon as it finds a second solution. Carving stops once
+ * the latency budget is spent, leaving a few more clues but never an ambiguous puzzle.
  * <p>
- * The board is represented as a list of lists (ArrayLists) rather than using arrays,
- * and the board is generated using a backtracking algorithm that works block by block.
+ * The board is stored in a {@link BitBoard} core that keeps one occupancy bitmask per row,
+ * column and block. {@link #getBoard()} exposes a read-only list of lists view for the UI.
+ * <p>
+ * The time taken by every generated board is recorded in {@link #getGenerationLatency()}, so the
+ * tail latency of starting a game can be monitored, and reported to Flight Recorder as a
+ * {@link GenerationEvent}.
  * <p>
  * Java JDK 17.
  */
 public class Board implements IBoard {
-    // Board dimensions and block dimensions.
-    private final int SIZE = 6;
-    private final int BLOCK_ROWS = 2;
-    private final int BLOCK_COLS = 3;
+    /** Default time allowed to carve a single puzzle, in milliseconds. */
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+    /** Default number of fill attempts before generation fails. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 1000;
+    /** Backtracks allowed per fill attempt before starting over. */
+    public static final int DEFAULT_BACKTRACK_BUDGET = 2000;
 
-    // Number of block rows and block columns.
-    private final int TOTAL_BLOCK_ROWS = SIZE / BLOCK_ROWS; // 6/2 = 3
-    private final int TOTAL_BLOCK_COLS = SIZE / BLOCK_COLS; // 6/3 = 2
-    private final int TOTAL_BLOCKS = TOTAL_BLOCK_ROWS * TOTAL_BLOCK_COLS; // 3 * 2 = 6
+    // Fill steps between two checks of the overall deadline.
+    private static final int DEADLINE_CHECK_STEPS = 256;
 
-    // The board represented as a List of Lists (each inner list is a row)
-    private final List<List<Integer>> board;
-    private final Random random = new Random();
+    // Generation time of every board built by the generating constructors.
+    private static final LatencyHistogram GENERATION_LATENCY = new LatencyHistogram();
+
+    // Shape of the board (size and block dimensions).
+    private final BoardGeometry geometry;
+
+    // The board is stored in a bitmask constraint core (row-major cells plus unit masks)
+    private final BitBoard board;
+    // The complete grid the puzzle was carved from, in row-major order.
+    private final int[] solution;
+    // Source of the fill and carving order (null for a loaded board, which is never filled).
+    private final RandomGenerator random;
+    // Solver used to check that every carved puzzle still has a unique solution (null for a loaded board).
+    private final ISolver solver;
+    // Backtracks and steps of the current fill attempt, and the deadline of the whole generation.
+    private int fillBacktracks;
+    private int fillSteps;
+    private long fillDeadline = Long.MAX_VALUE;
+    // Whether the deadline has been seen to pass; once set, every pending fill call gives up at once.
+    private boolean fillTimedOut;
+    // Fill attempts used and backtracks over all attempts.
+    private int attempts;
+    private long totalBacktracks;
+    // Whether carving stopped at its deadline instead of running out of removable clues.
+    private boolean carvedShort;
 
     /**
-     * Constructor initializes the board with zeros and then fills each block with one number.
+     * Creates a 6x6 puzzle with 2x3 blocks.
      */
     public Board() {
-        board = new ArrayList<>();
-        // Initialize the board with zeros.
-        for (int i = 0; i < SIZE; i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < SIZE; j++) {
-                row.add(0);
+        this(BoardGeometry.SIX);
+    }
+
+    /**
+     * Creates a puzzle with the default latency budget.
+     *
+     * @param geometry the shape of the board.
+     */
+    public Board(BoardGeometry geometry) {
+        this(geometry, DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Creates a puzzle with an unseeded random source.
+     * Use {@link PuzzleSeeds} to generate reproducible puzzles.
+     *
+     * @param geometry     the shape of the board.
+     * @param budgetMillis the time allowed to carve the puzzle, in milliseconds.
+     */
+    public Board(BoardGeometry geometry, long budgetMillis) {
+        this(geometry, budgetMillis, new SplittableRandom());
+    }
+
+    /**
+     * Constructor fills a complete solution grid and then carves clues out of it
+     * while the puzzle keeps a unique solution.
+     * <p>
+     * With a seeded random source and no budget, the same seed always produces the same puzzle;
+     * a time budget can cut carving short at a different clue depending on machine load.
+     *
+     * @param geometry     the shape of the board.
+     * @param budgetMillis the time allowed to carve the puzzle, in milliseconds, or 0 for no limit.
+     * @param random       the source of randomness for filling and carving.
+     */
+    public Board(BoardGeometry geometry, long budgetMillis, RandomGenerator random) {
+        this(geometry, budgetMillis, random, DEFAULT_MAX_ATTEMPTS, 0);
+    }
+
+    /**
+     * Generates a puzzle with explicit limits on the fill phase.
+     * <p>
+     * The fill restarts whenever an attempt uses up its backtrack budget. Generation fails if
+     * {@code maxAttempts} attempts all fail or the overall deadline passes before the grid is
+     * complete; carving always stops at the deadline, keeping the puzzle unique.
+     *
+     * @param geometry       the shape of the board.
+     * @param budgetMillis   the time allowed to carve the puzzle, in milliseconds, or 0 for no limit.
+     * @param random         the source of randomness for filling and carving.
+     * @param maxAttempts    the number of fill attempts before giving up.
+     * @param deadlineMillis the time allowed for the whole generation, in milliseconds, or 0 for no limit.
+     * @throws IllegalStateException if no complete grid was found within the limits.
+     */
+    public Board(BoardGeometry geometry, long budgetMillis, RandomGenerator random,
+                 int maxAttempts, long deadlineMillis) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long carveDeadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        if (deadlineMillis > 0) {
+            fillDeadline = start + deadlineMillis * 1_000_000;
+            if (carveDeadline == Long.MAX_VALUE || fillDeadline - carveDeadline < 0) {
+                carveDeadline = fillDeadline;
+            }
+        }
+        this.geometry = geometry;
+        this.random = random;
+        board = new BitBoard(geometry);
+        solution = new int[geometry.getCellCount()];
+        solver = uniquenessSolver(geometry);
+
+        // Build the complete grid first, starting over when an attempt gets stuck.
+        int size = geometry.getSize();
+        while (true) {
+            attempts++;
+            fillBacktracks = 0;
+            fillSteps = 0;
+            if (fillBlocks(0)) {
+                break;
+            }
+            totalBacktracks += fillBacktracks;
+            if (attempts >= maxAttempts || pastFillDeadline()) {
+                throw new IllegalStateException("Failed to generate the Sudoku board after "
+                        + attempts + " attempts (" + totalBacktracks + " backtracks).");
+            }
+            for (int index = 0; index < solution.length; index++) {
+                clear(index / size, index % size);
             }
-            board.add(row);
         }
-        // Attempt to fill each block with a valid number.
-        if (!fillBlocks(0)) {
-            System.out.println("Failed to generate the Sudoku board.");
+        totalBacktracks += fillBacktracks;
+        for (int index = 0; index < solution.length; index++) {
+            solution[index] = board.get(index / size, index % size);
+        }
+
+        carveClues(carveDeadline);
+        GENERATION_LATENCY.record(System.nanoTime() - start);
+        SudokuMetrics.getInstance().puzzleGenerated(totalBacktracks);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGeometry(geometry);
+            event.setResult(attempts, totalBacktracks, board.getFilledCount());
+            event.commit();
         }
     }
 
     /**
-     * Recursively fills each 2x3 block with one number.
+     * Creates a board from an existing puzzle and its solution, without generating anything.
+     * Used to load puzzles from a stored bank, so it allocates no random source and no solver;
+     * {@link #fillBlocks(int)} must not be called on such a board.
      *
-     * @param blockIndex the index of the current block (ranging from 0 to TOTAL_BLOCKS - 1).
-     * @return true if all blocks have been successfully filled; false otherwise.
+     * @param geometry the shape of the board.
+     * @param puzzle   the clues in row-major order (0 = empty).
+     * @param solution the unique solution in row-major order.
      */
+    public Board(BoardGeometry geometry, int[] puzzle, int[] solution) {
+        this.geometry = geometry;
+        this.random = null;
+        this.board = new BitBoard(geometry);
+        this.solution = solution.clone();
+        this.solver = null;
+        board.load(puzzle);
+    }
 
+    /**
+     * Chooses the solver that checks carved puzzles: large boards on a multi-core machine split
+     * the search, the others search on the calling thread.
+     *
+     * @param geometry the shape of the board.
+     * @return the solver.
+     */
+    private static ISolver uniquenessSolver(BoardGeometry geometry) {
+        if (geometry.getSize() >= ParallelSolver.MIN_PARALLEL_SIZE
+                && Runtime.getRuntime().availableProcessors() > 1) {
+            return new ParallelSolver(geometry);
+        }
+        return DancingLinksSolver.local(geometry);
+    }
+
+    /**
+     * Recursively fills every empty cell of the blocks from {@code blockIndex} onwards so that
+     * the board ends up as a complete valid grid. At each step the cell with the fewest
+     * candidates is filled next, trying its candidates in random order.
+     *
+     * @param blockIndex the first block to fill (ranging from 0 to size - 1).
+     * @return true if all blocks have been successfully filled; false if they cannot be completed,
+     *         the attempt ran out of backtracks or the generation deadline passed.
+     */
     @Override
     public boolean fillBlocks(int blockIndex) {
-        // Si ya se procesaron todos los bloques, el tablero está completo.
-        if (blockIndex == TOTAL_BLOCKS) {
-            return true;
+        if (fillTimedOut || fillBacktracks >= DEFAULT_BACKTRACK_BUDGET
+                || (++fillSteps % DEADLINE_CHECK_STEPS == 0 && pastFillDeadline())) {
+            return false;
         }
 
-        // Posición del bloque
-        int blockRow = blockIndex / TOTAL_BLOCK_COLS;
-        int blockCol = blockIndex % TOTAL_BLOCK_COLS;
-        int startRow = blockRow * BLOCK_ROWS;
-        int startCol = blockCol * BLOCK_COLS;
-
-        // Crear lista con las coordenadas de las 6 celdas del bloque
-        List<int[]> blockCells = new ArrayList<>();
-        for (int i = startRow; i < startRow + BLOCK_ROWS; i++) {
-            for (int j = startCol; j < startCol + BLOCK_COLS; j++) {
-                blockCells.add(new int[]{i, j});
+        // Buscar la celda vacía con menos candidatos
+        int size = geometry.getSize();
+        int bestIndex = -1;
+        int bestCandidates = 0;
+        int bestCount = Integer.MAX_VALUE;
+        for (int index = 0; index < solution.length && bestCount > 1; index++) {
+            int row = index / size;
+            int col = index % size;
+            if (geometry.blockOf(index) < blockIndex || board.get(row, col) != 0) {
+                continue;
+            }
+            int candidates = board.candidates(row, col);
+            int count = Integer.bitCount(candidates);
+            if (count == 0) {
+                return false; // Callejón sin salida
+            }
+            if (count < bestCount) {
+                bestIndex = index;
+                bestCandidates = candidates;
+                bestCount = count;
             }
         }
 
-        // Mezclar el orden de las celdas
-        Collections.shuffle(blockCells, random);
+        // Si no quedan celdas vacías, el tablero está completo.
+        if (bestIndex < 0) {
+            return true;
+        }
 
-        // Seleccionar las primeras 2 celdas (las que se llenarán)
-        List<int[]> chosenCells = blockCells.subList(0, 2);
+        // Probar los candidatos en orden aleatorio
+        int row = bestIndex / size;
+        int col = bestIndex % size;
+        int candidates = bestCandidates;
+        while (candidates != 0) {
+            int bit = randomBit(candidates);
+            candidates &= ~bit;
+            place(row, col, Integer.numberOfTrailingZeros(bit) + 1);
+            if (fillBlocks(blockIndex)) {
+                return true;
+            }
+            fillBacktracks++;
+        }
 
-        // Intentar llenar las dos celdas
-        for (int[] cell : chosenCells) {
-            int row = cell[0];
-            int col = cell[1];
+        // Ningún candidato funcionó: retroceder
+        clear(row, col);
+        return false;
+    }
 
-            // Candidatos aleatorios del 1 al 6
-            List<Integer> numbers = new ArrayList<>();
-            for (int n = 1; n <= SIZE; n++) numbers.add(n);
-            Collections.shuffle(numbers, random);
+    /**
+     * Removes clues in random order, keeping each removal only if the puzzle still has
+     * a unique solution, until no more clues can be removed or the deadline passes.
+     *
+     * @param deadline the {@link System#nanoTime()} value at which carving stops.
+     */
+    private void carveClues(long deadline) {
+        int size = geometry.getSize();
+        int[] puzzle = solution.clone();
+        int[] order = new int[solution.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
 
-            boolean placed = false;
-            for (int num : numbers) {
-                if (isValid(row, col, num)) {
-                    board.get(row).set(col, num);
-                    placed = true;
-                    break;
-                }
+        for (int index : order) {
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                carvedShort = true;
+                break;
             }
-
-            // Si no se pudo poner ningún número válido, retrocede
-            if (!placed) {
-                // Limpiar las celdas de este bloque antes de reintentar
-                for (int[] c : chosenCells) {
-                    board.get(c[0]).set(c[1], 0);
+            int row = index / size;
+            int col = index % size;
+            puzzle[index] = 0;
+            if (solver.hasUniqueSolution(puzzle, deadline)) {
+                clear(row, col);
+            } else {
+                puzzle[index] = solution[index];
+                // A check cut short by the deadline also answers false, and kept the clue wrongly
+                if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                    carvedShort = true;
+                    break;
                 }
-                return false;
             }
         }
+    }
 
-        // Pasar al siguiente bloque
-        if (fillBlocks(blockIndex + 1)) {
-            return true;
-        }
-
-        // Si la recursión falla, limpiar este bloque antes de devolver falso
-        for (int[] c : chosenCells) {
-            board.get(c[0]).set(c[1], 0);
+    private boolean pastFillDeadline() {
+        if (!fillTimedOut && fillDeadline != Long.MAX_VALUE && System.nanoTime() - fillDeadline > 0) {
+            fillTimedOut = true;
         }
-        return false;
+        return fillTimedOut;
     }
 
     /**
-     * Checks whether placing a candidate number at cell (row, col) violates the row or column uniqueness.
+     * Picks one of the set bits of a mask uniformly at random.
      *
-     * @param row       the row index.
-     * @param col       the column index.
-     * @param candidate the number to place (from 1 to 6).
-     * @return true if the candidate can be placed without conflict; false otherwise.
+     * @param mask a non-zero bitmask.
+     * @return a mask with only the chosen bit set.
      */
+    private int randomBit(int mask) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.lowestOneBit(mask);
+    }
+
     /**
      * Checks if placing the given number at (row, col) is valid
      * according to Sudoku rules (no repeats in row, column, or block).
+     * Runs in constant time using the row, column and block bitmasks.
+     *
+     * @param row    the row index.
+     * @param col    the column index.
+     * @param number the number to place (from 1 to the board size).
+     * @return true if the number can be placed without conflict; false otherwise.
      */
+    @Override
     public boolean isValid(int row, int col, int number) {
-        // 1️⃣ Verificar fila
-        for (int j = 0; j < SIZE; j++) {
-            if (board.get(row).get(j) == number) {
-                return false;
-            }
-        }
+        return board.isValid(row, col, number);
+    }
 
-        // 2️⃣ Verificar columna
-        for (int i = 0; i < SIZE; i++) {
-            if (board.get(i).get(col) == number) {
-                return false;
-            }
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void place(int row, int col, int number) {
+        board.place(row, col, number);
+    }
 
-        // 3️⃣ Verificar bloque (2x3)
-        int startRow = (row / BLOCK_ROWS) * BLOCK_ROWS;
-        int startCol = (col / BLOCK_COLS) * BLOCK_COLS;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear(int row, int col) {
+        board.clear(row, col);
+    }
 
-        for (int i = startRow; i < startRow + BLOCK_ROWS; i++) {
-            for (int j = startCol; j < startCol + BLOCK_COLS; j++) {
-                if (board.get(i).get(j) == number) {
-                    return false;
-                }
-            }
-        }
+    /**
+     * Returns the shape of the board.
+     *
+     * @return the board geometry.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
 
-        // Si pasa todas las validaciones, es válido
-        return true;
+    /**
+     * Returns the digit of the unique solution at the given cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the solution digit (from 1 to the board size).
+     */
+    public int getSolution(int row, int col) {
+        return solution[row * geometry.getSize() + col];
+    }
+
+    /**
+     * Copies the puzzle into a new array.
+     *
+     * @return the clues in row-major order (0 = empty).
+     */
+    public int[] toArray() {
+        int[] cells = new int[geometry.getCellCount()];
+        board.copyTo(cells);
+        return cells;
+    }
+
+    /**
+     * Copies the solution into a new array.
+     *
+     * @return the solution digits in row-major order.
+     */
+    public int[] solutionToArray() {
+        return solution.clone();
+    }
+
+    /**
+     * Returns the number of fill attempts used to generate this board.
+     *
+     * @return the attempts, or 0 if the board was loaded rather than generated.
+     */
+    public int getAttempts() {
+        return attempts;
     }
 
     /**
-     * Llena una celda vacía con un número válido al azar.
-     * Retorna true si se logró colocar un número, false si no había movimientos válidos.
+     * Returns the number of backtracks over all fill attempts.
+     *
+     * @return the backtracks, or 0 if the board was loaded rather than generated.
      */
+    public long getBacktracks() {
+        return totalBacktracks;
+    }
+
+    /**
+     * Returns whether carving was stopped by its deadline, so the puzzle may keep clues that
+     * could have been removed and differs from the one the same seed gives without a deadline.
+     *
+     * @return true if carving was cut short, false if it was complete or the board was loaded.
+     */
+    public boolean isCarvedShort() {
+        return carvedShort;
+    }
+
+    /**
+     * Returns the histogram of generation times of all boards generated in this JVM.
+     *
+     * @return the shared latency histogram.
+     */
+    public static LatencyHistogram getGenerationLatency() {
+        return GENERATION_LATENCY;
+    }
 
     /**
-     * Returns the generated board.
+     * Returns a read-only view of the generated puzzle.
      *
      * @return a list of lists representing the board.
      */
     public List<List<Integer>> getBoard() {
-        return board;
+        return board.asList();
     }
-}
\ No newline at end of file
+}
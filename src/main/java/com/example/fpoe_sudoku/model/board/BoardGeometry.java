@@ -0,0 +1,201 @@
+package com.example.fpoe_sudoku.model.board;
+
+/**
+ * Describes the shape of a Sudoku board: its side length and the dimensions of its blocks.
+ * <p>
+ * A board of size {@code blockRows * blockCols} has exactly {@code size} rows, columns and blocks.
+ * Blocks are numbered in row-major order. The row, column and block of every cell are
+ * precomputed so callers can look them up without divisions.
+ * <p>
+ * Instances are immutable and shared; the standard variants are available as constants.
+ */
+public final class BoardGeometry {
+    /** The largest supported side length (digits must fit in an {@code int} bitmask). */
+    public static final int MAX_SIZE = 25;
+
+    /** 6x6 board with 2x3 blocks (the original game). */
+    public static final BoardGeometry SIX = new BoardGeometry(2, 3);
+    /** 9x9 board with 3x3 blocks. */
+    public static final BoardGeometry NINE = new BoardGeometry(3, 3);
+    /** 12x12 board with 3x4 blocks. */
+    public static final BoardGeometry TWELVE = new BoardGeometry(3, 4);
+    /** 16x16 board with 4x4 blocks. */
+    public static final BoardGeometry SIXTEEN = new BoardGeometry(4, 4);
+    /** 25x25 board with 5x5 blocks. */
+    public static final BoardGeometry TWENTY_FIVE = new BoardGeometry(5, 5);
+
+    private static final BoardGeometry[] STANDARD = {SIX, NINE, TWELVE, SIXTEEN, TWENTY_FIVE};
+
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+    private final int blocksPerRow;
+
+    // Row, column and block index of every cell, in row-major order.
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] blockOf;
+
+    private BoardGeometry(int blockRows, int blockCols) {
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+        this.size = blockRows * blockCols;
+        this.blocksPerRow = size / blockCols;
+
+        int cells = size * size;
+        rowOf = new int[cells];
+        colOf = new int[cells];
+        blockOf = new int[cells];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int index = row * size + col;
+                rowOf[index] = row;
+                colOf[index] = col;
+                blockOf[index] = (row / blockRows) * blocksPerRow + col / blockCols;
+            }
+        }
+    }
+
+    /**
+     * Returns the geometry with the given block dimensions.
+     *
+     * @param blockRows the number of rows in a block.
+     * @param blockCols the number of columns in a block.
+     * @return the matching geometry.
+     * @throws IllegalArgumentException if the dimensions are not positive or the board would
+     *                                  be larger than {@link #MAX_SIZE}.
+     */
+    public static BoardGeometry of(int blockRows, int blockCols) {
+        if (blockRows < 1 || blockCols < 1 || blockRows * blockCols > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Unsupported block dimensions: " + blockRows + "x" + blockCols);
+        }
+        for (BoardGeometry geometry : STANDARD) {
+            if (geometry.blockRows == blockRows && geometry.blockCols == blockCols) {
+                return geometry;
+            }
+        }
+        return new BoardGeometry(blockRows, blockCols);
+    }
+
+    /**
+     * Returns the standard geometry for a side length (6, 9, 12, 16 or 25).
+     *
+     * @param size the number of rows and columns.
+     * @return the standard geometry with that size.
+     * @throws IllegalArgumentException if there is no standard geometry of that size.
+     */
+    public static BoardGeometry ofSize(int size) {
+        for (BoardGeometry geometry : STANDARD) {
+            if (geometry.size == size) {
+                return geometry;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported board size: " + size);
+    }
+
+    /**
+     * Returns the standard geometries, from smallest to largest.
+     *
+     * @return a new array with the standard geometries.
+     */
+    public static BoardGeometry[] standard() {
+        return STANDARD.clone();
+    }
+
+    /**
+     * @return the number of rows and columns (and digits) of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of rows in a block.
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * @return the number of columns in a block.
+     */
+    public int getBlockCols() {
+        return blockCols;
+    }
+
+    /**
+     * @return the number of blocks in each band of blocks.
+     */
+    public int getBlocksPerRow() {
+        return blocksPerRow;
+    }
+
+    /**
+     * @return the total number of cells of the board.
+     */
+    public int getCellCount() {
+        return size * size;
+    }
+
+    /**
+     * @return a bitmask with one bit set for every digit of the board.
+     */
+    public int getDigitMask() {
+        return (1 << size) - 1;
+    }
+
+    /**
+     * @param index a cell index in row-major order.
+     * @return the row of the cell.
+     */
+    public int rowOf(int index) {
+        return rowOf[index];
+    }
+
+    /**
+     * @param index a cell index in row-major order.
+     * @return the column of the cell.
+     */
+    public int colOf(int index) {
+        return colOf[index];
+    }
+
+    /**
+     * @param index a cell index in row-major order.
+     * @return the block of the cell.
+     */
+    public int blockOf(int index) {
+        return blockOf[index];
+    }
+
+    /**
+     * @param row the row index.
+     * @param col the column index.
+     * @return the block that contains the cell.
+     */
+    public int blockOf(int row, int col) {
+        return blockOf[row * size + col];
+    }
+
+    /**
+     * @param block a block index.
+     * @return the first row of the block.
+     */
+    public int blockStartRow(int block) {
+        return (block / blocksPerRow) * blockRows;
+    }
+
+    /**
+     * @param block a block index.
+     * @return the first column of the block.
+     */
+    public int blockStartCol(int block) {
+        return (block % blocksPerRow) * blockCols;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " (" + blockRows + "x" + blockCols + " blocks)";
+    }
+}
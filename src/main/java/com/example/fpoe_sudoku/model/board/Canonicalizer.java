@@ -0,0 +1,437 @@
+package com.example.fpoe_sudoku.model.board;
+
+import com.example.fpoe_sudoku.model.solver.DancingLinksSolver;
+
+import java.util.Arrays;
+
+/**
+ * Computes a canonical form of a grid under the Sudoku symmetry group, so that grids which only
+ * differ by a relabeling of the digits, a permutation of the bands, of the rows inside a band, of
+ * the stacks or of the columns inside a stack (and a transposition, for square blocks) get the
+ * same encoding and the same 64-bit hash.
+ * <p>
+ * For a complete grid, the canonical form is the transformed grid whose cell sequence is
+ * lexicographically smallest, with digits relabeled in order of first appearance. The sequence
+ * reads the top band column by column and the other rows row by row. That order avoids a search
+ * over most of the group: once the top band rows and the first stack columns are chosen, the
+ * top-left block always reads 1, 2, ... size, which fixes the relabeling, and every remaining
+ * choice is decided by distinct values (a row holds every digit once, and so does a column), so
+ * the remaining stacks, columns, bands and rows are simply sorted. Only the
+ * {@code bands * blockRows! * stacks * blockCols!} choices of top band and first stack are
+ * enumerated, and each candidate is compared with the best one as it is produced, stopping at the
+ * first larger cell.
+ * <p>
+ * A puzzle is canonicalized through its unique solution: among the transformations that map the
+ * solution to its canonical grid (usually just one), the one giving the smallest clue pattern is
+ * kept, and the puzzle is that canonical grid with the other cells emptied.
+ * <p>
+ * All working arrays are allocated once, so an instance is cheap to reuse but is not thread-safe.
+ */
+public class Canonicalizer {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int bandHeight;
+    private final int stackWidth;
+    private final int bands;
+    private final int stacks;
+    private final boolean square;
+
+    // All orderings of the rows of a band and of the columns of a stack.
+    private final int[][] rowPermutations;
+    private final int[][] colPermutations;
+
+    // Solution being canonicalized (transposed on the second pass for square blocks) and clue mask.
+    private final int[] source;
+    private final boolean[] givens;
+
+    // Current transformation: original row and column of every slot, and the digit relabeling.
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] label;
+    private final int[] sortKeys;
+    private final int[] groupOrder;
+
+    // Best sequence found so far (top band column-major, other rows row-major).
+    private final int[] best;
+
+    // Transformations that produce the best sequence: row order, column order, transposed flag.
+    private int[][] ties;
+    private int tieCount;
+
+    // Scratch buffers for puzzles and hashing.
+    private final int[] solution;
+    private final int[] candidate;
+    private final int[] scratch;
+    private final int[] canonical;
+
+    /**
+     * Creates a canonicalizer for grids of one shape.
+     *
+     * @param geometry the shape of the grids.
+     */
+    public Canonicalizer(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.bandHeight = geometry.getBlockRows();
+        this.stackWidth = geometry.getBlockCols();
+        this.bands = size / bandHeight;
+        this.stacks = size / stackWidth;
+        this.square = bandHeight == stackWidth;
+        this.rowPermutations = permutations(bandHeight);
+        this.colPermutations = permutations(stackWidth);
+
+        int cells = geometry.getCellCount();
+        this.source = new int[cells];
+        this.givens = new boolean[cells];
+        this.rows = new int[size];
+        this.cols = new int[size];
+        this.label = new int[size + 1];
+        this.sortKeys = new int[size];
+        this.groupOrder = new int[size];
+        this.best = new int[cells];
+        this.ties = new int[4][];
+        this.solution = new int[cells];
+        this.candidate = new int[cells];
+        this.scratch = new int[cells];
+        this.canonical = new int[cells];
+    }
+
+    /**
+     * @return the shape of the grids this canonicalizer accepts.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Computes the canonical form of a complete grid or of a puzzle with a unique solution.
+     * Puzzles are solved first; use {@link #canonicalize(int[], int[], int[])} when the solution
+     * is already known.
+     *
+     * @param cells  the grid in row-major order (0 = empty).
+     * @param target the array that receives the canonical grid; may be {@code cells} itself.
+     * @throws IllegalArgumentException if the puzzle does not have exactly one solution.
+     */
+    public void canonicalize(int[] cells, int[] target) {
+        System.arraycopy(cells, 0, solution, 0, cells.length);
+        boolean complete = true;
+        for (int value : cells) {
+            if (value == 0) {
+                complete = false;
+                break;
+            }
+        }
+        if (!complete && (DancingLinksSolver.local(geometry).countSolutions(solution.clone(), 2) != 1
+                || !DancingLinksSolver.local(geometry).solve(solution))) {
+            throw new IllegalArgumentException("The puzzle does not have a unique solution");
+        }
+        canonicalize(cells, solution, target);
+    }
+
+    /**
+     * Computes the canonical form of a puzzle whose solution is known.
+     *
+     * @param puzzle   the clues in row-major order (0 = empty); may be the solution itself.
+     * @param solution the complete solution in row-major order.
+     * @param target   the array that receives the canonical puzzle; may be {@code puzzle} itself.
+     */
+    public void canonicalize(int[] puzzle, int[] solution, int[] target) {
+        Arrays.fill(best, Integer.MAX_VALUE);
+        tieCount = 0;
+        for (int index = 0; index < puzzle.length; index++) {
+            givens[index] = puzzle[index] != 0;
+        }
+
+        System.arraycopy(solution, 0, source, 0, source.length);
+        search(0);
+        if (square) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    source[col * size + row] = solution[row * size + col];
+                }
+            }
+            search(1);
+        }
+
+        // Canonical grid in row-major order
+        int top = bandHeight * size;
+        System.arraycopy(best, top, scratch, top, best.length - top);
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < bandHeight; row++) {
+                scratch[row * size + col] = best[col * bandHeight + row];
+            }
+        }
+
+        // Smallest clue pattern among the transformations that give the canonical grid
+        boolean first = true;
+        for (int t = 0; t < tieCount; t++) {
+            int[] tie = ties[t];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int original = tie[2 * size] == 0
+                            ? tie[row] * size + tie[size + col]
+                            : tie[size + col] * size + tie[row];
+                    int index = row * size + col;
+                    candidate[index] = givens[original] ? scratch[index] : 0;
+                }
+            }
+            if (first || Arrays.compare(candidate, target) < 0) {
+                System.arraycopy(candidate, 0, target, 0, candidate.length);
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical form of a grid as a {@link PuzzleText} line.
+     *
+     * @param cells the grid in row-major order (0 = empty).
+     * @return the encoded canonical grid.
+     */
+    public String encode(int[] cells) {
+        int[] canonical = new int[cells.length];
+        canonicalize(cells, canonical);
+        return PuzzleText.encode(canonical);
+    }
+
+    /**
+     * Returns the 64-bit hash of the canonical form of a grid. Equivalent grids always get the
+     * same hash; different canonical forms collide with negligible probability.
+     *
+     * @param cells the grid in row-major order (0 = empty).
+     * @return the hash.
+     */
+    public long hash(int[] cells) {
+        canonicalize(cells, canonical);
+        return hashOf(canonical);
+    }
+
+    /**
+     * Returns the 64-bit hash of the canonical form of a puzzle whose solution is known.
+     *
+     * @param puzzle   the clues in row-major order (0 = empty).
+     * @param solution the complete solution in row-major order.
+     * @return the hash.
+     */
+    public long hash(int[] puzzle, int[] solution) {
+        canonicalize(puzzle, solution, canonical);
+        return hashOf(canonical);
+    }
+
+    /**
+     * Hashes a grid that is already in canonical form.
+     *
+     * @param canonical the canonical grid in row-major order.
+     * @return the hash.
+     */
+    public static long hashOf(int[] canonical) {
+        long hash = canonical.length;
+        long word = 0;
+        int bits = 0;
+        for (int value : canonical) {
+            word = (word << 5) | value;
+            bits += 5;
+            if (bits > 64 - 5) {
+                hash = PuzzleSeeds.mix64(hash ^ word) + word;
+                word = 0;
+                bits = 0;
+            }
+        }
+        return PuzzleSeeds.mix64(hash ^ word);
+    }
+
+    /**
+     * Tries every top band with its rows in every order and every first stack with its columns
+     * in every order; everything else follows from sorting.
+     *
+     * @param transposed 1 if the source is the transposed grid, 0 otherwise.
+     */
+    private void search(int transposed) {
+        for (int band = 0; band < bands; band++) {
+            for (int[] rowOrder : rowPermutations) {
+                for (int i = 0; i < bandHeight; i++) {
+                    rows[i] = band * bandHeight + rowOrder[i];
+                }
+                for (int stack = 0; stack < stacks; stack++) {
+                    for (int[] colOrder : colPermutations) {
+                        for (int i = 0; i < stackWidth; i++) {
+                            cols[i] = stack * stackWidth + colOrder[i];
+                        }
+                        // The top-left block reads 1, 2, ... size column by column
+                        for (int j = 0; j < stackWidth; j++) {
+                            for (int r = 0; r < bandHeight; r++) {
+                                label[source[rows[r] * size + cols[j]]] = j * bandHeight + r + 1;
+                            }
+                        }
+                        sortColumns(stack);
+                        sortRows(band);
+                        compare(transposed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders the stacks after the first one by their smallest top-row label, and the columns of
+     * each stack by their top-row label.
+     */
+    private void sortColumns(int firstStack) {
+        int top = rows[0] * size;
+        for (int col = 0; col < size; col++) {
+            sortKeys[col] = label[source[top + col]];
+        }
+        int count = sortGroups(firstStack, stacks, stackWidth);
+        int slot = stackWidth;
+        for (int i = 0; i < count; i++) {
+            slot = sortMembers(groupOrder[i], stackWidth, cols, slot);
+        }
+    }
+
+    /**
+     * Orders the bands after the first one by the smallest label in their first column, and the
+     * rows of each band by that label.
+     */
+    private void sortRows(int firstBand) {
+        int first = cols[0];
+        for (int row = 0; row < size; row++) {
+            sortKeys[row] = label[source[row * size + first]];
+        }
+        int count = sortGroups(firstBand, bands, bandHeight);
+        int slot = bandHeight;
+        for (int i = 0; i < count; i++) {
+            slot = sortMembers(groupOrder[i], bandHeight, rows, slot);
+        }
+    }
+
+    /**
+     * Sorts the groups (bands or stacks) other than {@code skip} by their smallest key into
+     * {@link #groupOrder}.
+     *
+     * @return the number of sorted groups.
+     */
+    private int sortGroups(int skip, int groupCount, int width) {
+        int count = 0;
+        for (int group = 0; group < groupCount; group++) {
+            if (group == skip) {
+                continue;
+            }
+            int key = minKey(group, width);
+            int at = count++;
+            while (at > 0 && minKey(groupOrder[at - 1], width) > key) {
+                groupOrder[at] = groupOrder[at - 1];
+                at--;
+            }
+            groupOrder[at] = group;
+        }
+        return count;
+    }
+
+    private int minKey(int group, int width) {
+        int min = Integer.MAX_VALUE;
+        for (int i = group * width; i < (group + 1) * width; i++) {
+            min = Math.min(min, sortKeys[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Appends the members of a group to an order, sorted by key (insertion sort).
+     *
+     * @return the next free slot of the order.
+     */
+    private int sortMembers(int group, int width, int[] order, int slot) {
+        int start = slot;
+        for (int member = group * width; member < (group + 1) * width; member++) {
+            int key = sortKeys[member];
+            int at = slot++;
+            while (at > start && sortKeys[order[at - 1]] > key) {
+                order[at] = order[at - 1];
+                at--;
+            }
+            order[at] = member;
+        }
+        return slot;
+    }
+
+    /**
+     * Compares the sequence of the current transformation with the best one cell by cell,
+     * stopping at the first larger cell, and records the transformation if it is not larger.
+     */
+    private void compare(int transposed) {
+        int position = 0;
+        int order = 0;
+        // Top band, column by column
+        for (int j = 0; j < size && order <= 0; j++) {
+            for (int r = 0; r < bandHeight; r++, position++) {
+                int value = label[source[rows[r] * size + cols[j]]];
+                if (order == 0 && value != best[position]) {
+                    if (value > best[position]) {
+                        return;
+                    }
+                    order = -1;
+                }
+                best[position] = value;
+            }
+        }
+        // Remaining rows, row by row
+        for (int r = bandHeight; r < size; r++) {
+            int base = rows[r] * size;
+            for (int j = 0; j < size; j++, position++) {
+                int value = label[source[base + cols[j]]];
+                if (order == 0 && value != best[position]) {
+                    if (value > best[position]) {
+                        return;
+                    }
+                    order = -1;
+                }
+                best[position] = value;
+            }
+        }
+
+        if (order < 0) {
+            tieCount = 0;
+        }
+        if (tieCount == ties.length) {
+            ties = Arrays.copyOf(ties, ties.length * 2);
+        }
+        int[] tie = ties[tieCount];
+        if (tie == null) {
+            tie = new int[2 * size + 1];
+            ties[tieCount] = tie;
+        }
+        System.arraycopy(rows, 0, tie, 0, size);
+        System.arraycopy(cols, 0, tie, size, size);
+        tie[2 * size] = transposed;
+        tieCount++;
+    }
+
+    private static int[][] permutations(int n) {
+        int count = 1;
+        for (int i = 2; i <= n; i++) {
+            count *= i;
+        }
+        int[][] result = new int[count][];
+        int[] items = new int[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = i;
+        }
+        permute(items, 0, result, new int[1]);
+        return result;
+    }
+
+    private static void permute(int[] items, int from, int[][] result, int[] next) {
+        if (from == items.length) {
+            result[next[0]++] = items.clone();
+            return;
+        }
+        for (int i = from; i < items.length; i++) {
+            int swap = items[from];
+            items[from] = items[i];
+            items[i] = swap;
+            permute(items, from + 1, result, next);
+            items[i] = items[from];
+            items[from] = swap;
+        }
+    }
+}
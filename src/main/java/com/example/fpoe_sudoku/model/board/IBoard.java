@@ -20,4 +20,19 @@ public interface IBoard {
      * @return {@code true} if the move is valid, {@code false} otherwise.
      */
     boolean isValid(int row, int col, int candidate);
-}
\ No newline at end of file
+    /**
+     * Writes a number into a cell, replacing its previous value.
+     *
+     * @param row    The row index of the cell.
+     * @param col    The column index of the cell.
+     * @param number The number to place.
+     */
+    void place(int row, int col, int number);
+    /**
+     * Empties a cell.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     */
+    void clear(int row, int col);
+}
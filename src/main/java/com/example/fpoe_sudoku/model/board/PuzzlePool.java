@@ -0,0 +1,142 @@
+package com.example.fpoe_sudoku.model.board;
+
+import com.example.fpoe_sudoku.utils.Log;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of pre-generated boards, refilled by a background thread.
+ * <p>
+ * The refill thread generates boards until the pool holds {@code highWater} of them and then
+ * sleeps. {@link #take()} never blocks: it hands out a pooled board if there is one (a hit) or
+ * returns null (a miss), and wakes the refill thread once the pool drops to {@code lowWater}.
+ * Hit and miss counts are kept so the water marks can be sized from real sessions.
+ */
+public class PuzzlePool {
+    /** Default number of boards below which the pool is refilled. */
+    public static final int DEFAULT_LOW_WATER = 2;
+    /** Default number of boards the refill thread generates up to. */
+    public static final int DEFAULT_HIGH_WATER = 8;
+
+    private static final Map<BoardGeometry, PuzzlePool> SHARED = new ConcurrentHashMap<>();
+
+    private final BoardGeometry geometry;
+    private final int lowWater;
+    private final ArrayBlockingQueue<Board> boards;
+    private final Thread refiller;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Creates a pool and starts its refill thread.
+     *
+     * @param geometry  the shape of the boards in the pool.
+     * @param lowWater  the pool size at or below which the refill thread wakes up.
+     * @param highWater the maximum number of pooled boards.
+     */
+    public PuzzlePool(BoardGeometry geometry, int lowWater, int highWater) {
+        if (lowWater < 0 || highWater <= lowWater) {
+            throw new IllegalArgumentException("Invalid water marks: " + lowWater + ", " + highWater);
+        }
+        this.geometry = geometry;
+        this.lowWater = lowWater;
+        this.boards = new ArrayBlockingQueue<>(highWater);
+        this.refiller = new Thread(this::refill, "puzzle-pool-" + geometry.getSize());
+        refiller.setDaemon(true);
+        refiller.setPriority(Thread.MIN_PRIORITY);
+        refiller.start();
+    }
+
+    /**
+     * Returns the application-wide pool for a geometry, creating it with the default
+     * water marks on first use.
+     *
+     * @param geometry the shape of the boards.
+     * @return the shared pool.
+     */
+    public static PuzzlePool shared(BoardGeometry geometry) {
+        return SHARED.computeIfAbsent(geometry,
+                key -> new PuzzlePool(key, DEFAULT_LOW_WATER, DEFAULT_HIGH_WATER));
+    }
+
+    /**
+     * Takes a pre-generated board without blocking.
+     *
+     * @return a board, or null if the pool is empty.
+     */
+    public Board take() {
+        Board board = boards.poll();
+        if (board != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        if (boards.size() <= lowWater) {
+            LockSupport.unpark(refiller);
+        }
+        return board;
+    }
+
+    /**
+     * Takes a pre-generated board, or generates one on the calling thread if the pool is empty.
+     *
+     * @return a board.
+     */
+    public Board takeOrGenerate() {
+        Board board = take();
+        return board != null ? board : new Board(geometry);
+    }
+
+    /**
+     * @return the number of boards currently in the pool.
+     */
+    public int size() {
+        return boards.size();
+    }
+
+    /**
+     * @return the number of calls to {@link #take()} that returned a pooled board.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of calls to {@link #take()} that found the pool empty.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Stops the refill thread. Boards already in the pool can still be taken.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(refiller);
+    }
+
+    /**
+     * Body of the refill thread: fills the pool up to the high water mark, then sleeps until
+     * {@link #take()} drains it down to the low water mark.
+     */
+    private void refill() {
+        while (running) {
+            while (running && boards.remainingCapacity() > 0) {
+                try {
+                    boards.offer(new Board(geometry));
+                } catch (IllegalStateException e) {
+                    Log.warn("%s", e.getMessage());
+                }
+            }
+            while (running && boards.size() > lowWater) {
+                LockSupport.park(this);
+            }
+        }
+    }
+}
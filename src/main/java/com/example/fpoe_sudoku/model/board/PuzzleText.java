@@ -0,0 +1,153 @@
+package com.example.fpoe_sudoku.model.board;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One-line text format for puzzles, used by the offline tools.
+ * <p>
+ * A grid is written as one character per cell in row-major order: {@code '.'} for an empty cell,
+ * {@code '1'}-{@code '9'} for digits up to 9 and {@code 'A'}-{@code 'P'} for 10 to 25.
+ * A puzzle line holds the puzzle, a {@code ':'} and its solution.
+ */
+public final class PuzzleText {
+    private static final byte EMPTY = '.';
+    private static final byte SEPARATOR = ':';
+
+    private PuzzleText() {
+    }
+
+    /**
+     * Returns the character used for a cell value.
+     *
+     * @param value the digit (0 for empty).
+     * @return the encoded character.
+     */
+    public static char toChar(int value) {
+        if (value == 0) {
+            return (char) EMPTY;
+        }
+        return (char) (value <= 9 ? '0' + value : 'A' + value - 10);
+    }
+
+    /**
+     * Returns the cell value of an encoded character.
+     *
+     * @param c the encoded character.
+     * @return the digit (0 for empty).
+     * @throws IllegalArgumentException if the character is not part of the format.
+     */
+    public static int fromChar(char c) {
+        if (c == EMPTY || c == '0') {
+            return 0;
+        }
+        if (c >= '1' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'P') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("Invalid cell character: " + c);
+    }
+
+    /**
+     * Writes a grid as text.
+     *
+     * @param cells the grid in row-major order.
+     * @return the encoded grid.
+     */
+    public static String encode(int[] cells) {
+        char[] chars = new char[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            chars[i] = toChar(cells[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Reads a grid written by {@link #encode(int[])}.
+     *
+     * @param text  the encoded grid.
+     * @param cells the array to fill, in row-major order.
+     */
+    public static void decode(CharSequence text, int[] cells) {
+        if (text.length() != cells.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + cells.length + " cells but got " + text.length());
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = fromChar(text.charAt(i));
+        }
+    }
+
+    /**
+     * Appends a {@code puzzle:solution} line to a buffer.
+     *
+     * @param puzzle   the clues in row-major order.
+     * @param solution the solution in row-major order.
+     * @param buffer   the buffer to write to; it needs {@link #lineLength(BoardGeometry)} bytes free.
+     */
+    public static void writeLine(int[] puzzle, int[] solution, ByteBuffer buffer) {
+        for (int value : puzzle) {
+            buffer.put((byte) toChar(value));
+        }
+        buffer.put(SEPARATOR);
+        for (int value : solution) {
+            buffer.put((byte) toChar(value));
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Reads a {@code puzzle:solution} line (or a line with only a puzzle).
+     *
+     * @param line     the text line, without its line terminator.
+     * @param puzzle   the array that receives the clues.
+     * @param solution the array that receives the solution, or null to ignore it.
+     * @return true if the line contained a solution.
+     */
+    public static boolean readLine(String line, int[] puzzle, int[] solution) {
+        int separator = line.indexOf(SEPARATOR);
+        if (separator < 0) {
+            decode(line, puzzle);
+            return false;
+        }
+        decode(line.subSequence(0, separator), puzzle);
+        if (solution != null) {
+            decode(line.subSequence(separator + 1, line.length()), solution);
+        }
+        return true;
+    }
+
+    /**
+     * Reads a {@code puzzle:solution} line written by {@link #writeLine(int[], int[], ByteBuffer)}
+     * from a buffer at its current position, without creating any strings.
+     *
+     * @param buffer   the buffer to read from; the line terminator is consumed if present.
+     * @param puzzle   the array that receives the clues.
+     * @param solution the array that receives the solution.
+     */
+    public static void readLine(ByteBuffer buffer, int[] puzzle, int[] solution) {
+        for (int i = 0; i < puzzle.length; i++) {
+            puzzle[i] = fromChar((char) buffer.get());
+        }
+        if (buffer.get() != SEPARATOR) {
+            throw new IllegalArgumentException("Expected a puzzle:solution line");
+        }
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = fromChar((char) buffer.get());
+        }
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+            buffer.get();
+        }
+    }
+
+    /**
+     * Returns the length of a puzzle line in bytes, including the line terminator.
+     *
+     * @param geometry the shape of the board.
+     * @return the number of bytes written by {@link #writeLine(int[], int[], ByteBuffer)}.
+     */
+    public static int lineLength(BoardGeometry geometry) {
+        return 2 * geometry.getCellCount() + 2;
+    }
+}
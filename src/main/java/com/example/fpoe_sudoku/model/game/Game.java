@@ -1,99 +1,230 @@
 package com.example.fpoe_sudoku.model.game;
 
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzlePool;
+import com.example.fpoe_sudoku.model.board.PuzzleSeeds;
+import com.example.fpoe_sudoku.model.hint.Hint;
+import com.example.fpoe_sudoku.model.hint.HintEngine;
+import com.example.fpoe_sudoku.model.hint.Technique;
+import com.example.fpoe_sudoku.model.save.SavedGame;
+import com.example.fpoe_sudoku.monitoring.CellStyleEvent;
+import com.example.fpoe_sudoku.monitoring.CompletionCheckEvent;
+import com.example.fpoe_sudoku.monitoring.HintEvent;
+import com.example.fpoe_sudoku.monitoring.MoveValidationEvent;
+import com.example.fpoe_sudoku.monitoring.SudokuMetrics;
 import com.example.fpoe_sudoku.utils.AlertBox;
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+import com.example.fpoe_sudoku.utils.Log;
+import com.example.fpoe_sudoku.view.BoardRenderer;
+import com.example.fpoe_sudoku.view.CanvasBoardView;
+import com.example.fpoe_sudoku.view.CellState;
+import javafx.application.Platform;
+import javafx.geometry.HPos;
 import javafx.geometry.Pos;
+import javafx.geometry.VPos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
-import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the concrete implementation of the Sudoku game logic.
  * This class is responsible for setting up the game board UI and handling user input.
+ * <p>
+ * The rules, the board and the journal live in a UI-independent {@link GameState}, the same one
+ * headless sessions play on; this class turns its results into cell styles and alerts.
+ * Once the game has started, the game state and the hint engine belong to a
+ * {@link ModelExecutor} thread: the JavaFX handlers only parse the input and queue it, and the
+ * model thread validates moves, searches hints and sends the resulting cell changes back to the
+ * JavaFX thread in one batch.
+ * <p>
+ * Move validation, completion checks, hint requests and cell updates are reported to Flight
+ * Recorder through the events of the {@code monitoring} package; per-move messages are logged
+ * at {@link Log.Level#DEBUG}. Their timings also feed the live {@link SudokuMetrics}.
  */
 public class Game extends GameAbstract {
 
-    private static final int SIZE = 6;
-    private static final int BLOCK_ROWS = 2;
-    private static final int BLOCK_COLS = 3;
+    // Width and height of the whole board inside the GridPane, in pixels.
+    private static final double BOARD_EXTENT = 300;
 
-    // Store the current state of the board (user + pre-filled)
-    private List<List<Integer>> currentBoard;
+    // Shape of the board, read from the generated Board
+    private final BoardGeometry geometry;
+    private final int size;
 
-    // Store which cells are pre-filled (not editable)
-    private List<List<Boolean>> preFilledCells;
+    // Stylesheet with the look of every cell state
+    private static final String BOARD_STYLESHEET = "/com/example/fpoe_sudoku/sudoku-board.css";
+
+    // How the board is drawn, chosen before startGame
+    private BoardRenderer renderer = BoardRenderer.TEXT_FIELDS;
+
+    // Single-node board view, when the canvas renderer is used
+    private CanvasBoardView canvasView;
+
+    // Clues, player's digits and journal of the moves
+    private GameState state;
+
+    // Candidate tracking for logical hints, kept in sync with the game state
+    private HintEngine hintEngine;
+
+    // Picks the cell of hints taken from the solution
+    private final RandomGenerator hintRandom;
+
+    // Values entered in a previous session, shown by startGame (null for a new game)
+    private int[] restoredCells;
+
+    // Receives every change of a cell, including undo and redo, e.g. to save the game
+    private LongConsumer moveListener = move -> { };
+
+    // Thread that owns the model once the game has started
+    private final ModelExecutor model;
+
+    // Sequence number of the latest input in each cell (JavaFX thread only); UI patches made
+    // before it are dropped, so they cannot overwrite what the player has typed since
+    private final long[] cellInputs;
+
+    // Marks a cell whose field holds a typed digit that has not been queued yet
+    private static final long INPUT_NOT_QUEUED = Long.MAX_VALUE;
 
     /**
-     * Constructs a new Game instance.
+     * Constructs a new Game instance with a 6x6 board.
      *
      * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
      */
     public Game(GridPane boardGridpane) {
-        super(boardGridpane);
+        this(boardGridpane, BoardGeometry.SIX);
+    }
+
+    /**
+     * Constructs a new Game instance.
+     *
+     * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
+     * @param geometry      The shape of the board to play on.
+     */
+    public Game(GridPane boardGridpane, BoardGeometry geometry) {
+        this(boardGridpane, PuzzlePool.shared(geometry).takeOrGenerate(), new SplittableRandom());
+    }
+
+    /**
+     * Constructs a reproducible Game: the same seed always gives the same puzzle and,
+     * for the same moves, the same hints.
+     *
+     * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
+     * @param geometry      The shape of the board to play on.
+     * @param seed          The seed of the puzzle and of the hints.
+     */
+    public Game(GridPane boardGridpane, BoardGeometry geometry, long seed) {
+        this(boardGridpane, PuzzleSeeds.generate(geometry, seed, 0), PuzzleSeeds.generator(seed, -1));
+    }
+
+    /**
+     * Constructs a Game that resumes a saved game, with the values the player had entered.
+     *
+     * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
+     * @param saved         The saved game to resume.
+     */
+    public Game(GridPane boardGridpane, SavedGame saved) {
+        this(boardGridpane, saved.toBoard(), new SplittableRandom());
+        this.restoredCells = saved.getCells();
+    }
+
+    private Game(GridPane boardGridpane, Board board, RandomGenerator hintRandom) {
+        super(boardGridpane, board);
+        this.geometry = board.getGeometry();
+        this.size = geometry.getSize();
+        this.hintRandom = hintRandom;
+        this.cellInputs = new long[geometry.getCellCount()];
         initializeGameState();
+        this.model = new ModelExecutor("sudoku-model", this::applyMove, Platform::runLater);
+        SudokuMetrics.getInstance().setModelExecutor(model);
     }
 
     /**
      * Initializes the game state structures.
      */
     private void initializeGameState() {
-        currentBoard = new ArrayList<>();
-        preFilledCells = new ArrayList<>();
-
-        for (int i = 0; i < SIZE; i++) {
-            List<Integer> row = new ArrayList<>();
-            List<Boolean> preFilledRow = new ArrayList<>();
-            for (int j = 0; j < SIZE; j++) {
-                row.add(0);
-                preFilledRow.add(false);
-            }
-            currentBoard.add(row);
-            preFilledCells.add(preFilledRow);
-        }
+        state = new GameState(board);
+        hintEngine = new HintEngine(state.getBoard());
     }
 
     /**
-     * Starts the game by generating a board, creating UI components (TextFields) for each cell,
-     * and adding them to the GridPane. It also sets properties for each cell, such as editability.
+     * Sets how the board is drawn. Must be called before {@link #startGame()}.
+     *
+     * @param renderer TextFields, one per cell, or a single canvas.
+     */
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Starts the game by loading the clues of the board, creating the UI components for each cell
+     * (TextFields, or a single canvas view for {@link BoardRenderer#CANVAS}), and adding them to
+     * the GridPane. It also sets properties for each cell, such as editability.
      */
     @Override
     public void startGame() {
-        System.out.println("=== Generated Sudoku Board ===");
+        if (Log.isEnabled(Log.Level.DEBUG)) {
+            StringBuilder dump = new StringBuilder("=== Generated Sudoku Board ===\n");
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    dump.append(state.get(i * size + j)).append(' ');
+                }
+                dump.append('\n');
+            }
+            Log.debug(dump.append("============================").toString());
+        }
 
-        for (int i = 0; i < board.getBoard().size(); i++) {
-            for (int j = 0; j < board.getBoard().get(i).size(); j++) {
-                int number = board.getBoard().get(i).get(j);
-                System.out.print(number + " ");
+        double cellSize = BOARD_EXTENT / size;
+        // Only the font size depends on the board, so it is the only inline style, set once per cell
+        String fontStyle = "-fx-font-size: " + Math.round(cellSize * 0.36) + "px;";
+        buildGridConstraints(cellSize);
+        boardGridpane.getStylesheets().add(getClass().getResource(BOARD_STYLESHEET).toExternalForm());
+        if (renderer == BoardRenderer.CANVAS) {
+            buildCanvasView(cellSize, fontStyle);
+        } else {
+            buildTextFields(cellSize, fontStyle);
+        }
 
+        if (restoredCells != null) {
+            restoreCells();
+        }
+    }
+
+    /**
+     * Creates one TextField per cell and adds them to the GridPane.
+     *
+     * @param cellSize  The width and height of a cell, in pixels.
+     * @param fontStyle The inline style with the font size of the cells.
+     */
+    private void buildTextFields(double cellSize, String fontStyle) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 TextField textField = new TextField();
                 textField.setAlignment(Pos.CENTER);
-                textField.setPrefWidth(50);
-                textField.setPrefHeight(50);
+                textField.setPrefWidth(cellSize);
+                textField.setPrefHeight(cellSize);
 
                 // Style for all cells
-                textField.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+                textField.getStyleClass().add("sudoku-cell");
+                textField.setStyle(fontStyle);
 
-                if (number != 0) {
+                if (state.isGiven(i * size + j)) {
                     // Pre-filled cell
-                    textField.setText(String.valueOf(number));
+                    textField.setText(String.valueOf(state.get(i * size + j)));
                     textField.setEditable(false);
-                    textField.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                            "-fx-background-color: #300D0D; -fx-text-fill: #ffffff;" +
-                            "-fx-border-color: #ffffff; -fx-border-width: 2px;");
-                    preFilledCells.get(i).set(j, true);
-                    currentBoard.get(i).set(j, number);
+                    CellState.GIVEN.applyTo(textField);
                 } else {
                     // Editable cell
                     textField.setText("");
                     textField.setEditable(true);
-                    textField.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                            "-fx-background-color: #000000; -fx-text-fill: #ffffff;" +
-                            "-fx-border-color: #ffffff; -fx-border-width: 2px;");
-                    preFilledCells.get(i).set(j, false);
+                    CellState.VALID.applyTo(textField);
                 }
 
                 // Store the TextField reference
@@ -104,10 +235,78 @@ public class Game extends GameAbstract {
 
                 boardGridpane.add(textField, j, i);
             }
-            System.out.println();
         }
+    }
+
+    /**
+     * Draws the whole board on a single canvas view that spans every GridPane cell.
+     *
+     * @param cellSize  The width and height of a cell, in pixels.
+     * @param fontStyle The inline style with the font size of the cell editor.
+     */
+    private void buildCanvasView(double cellSize, String fontStyle) {
+        canvasView = new CanvasBoardView(geometry, cellSize, fontStyle, new CanvasBoardView.CellListener() {
+            @Override
+            public void cellTyped(int row, int col, String text) {
+                Game.this.cellTyped(row, col, text);
+            }
+
+            @Override
+            public void cellCleared(int row, int col) {
+                Game.this.cellCleared(row, col);
+            }
+
+            @Override
+            public void cellLeft(int row, int col) {
+                Game.this.cellLeft(row, col);
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (state.isGiven(i * size + j)) {
+                    canvasView.setCell(i, j, state.get(i * size + j), CellState.GIVEN);
+                }
+            }
+        }
+        boardGridpane.add(canvasView, 0, 0, size, size);
+    }
+
+    /**
+     * Shows the values entered in a previous session, styled from the conflicts they have
+     * once all of them are on the board.
+     */
+    private void restoreCells() {
+        for (int cell = 0; cell < restoredCells.length; cell++) {
+            int number = restoredCells[cell];
+            if (number != 0 && !state.isGiven(cell)) {
+                applyCell(cell, number);
+            }
+        }
+        for (int cell = 0; cell < restoredCells.length; cell++) {
+            if (!state.isGiven(cell) && state.get(cell) != 0) {
+                showMove(cell);
+            }
+        }
+        restoredCells = null;
+    }
 
-        System.out.println("============================");
+    /**
+     * Replaces the row and column constraints of the GridPane with one per board row and column.
+     *
+     * @param cellSize The width and height of a cell, in pixels.
+     */
+    private void buildGridConstraints(double cellSize) {
+        boardGridpane.getColumnConstraints().clear();
+        boardGridpane.getRowConstraints().clear();
+        for (int i = 0; i < size; i++) {
+            ColumnConstraints column = new ColumnConstraints(cellSize);
+            column.setHalignment(HPos.CENTER);
+            boardGridpane.getColumnConstraints().add(column);
+
+            RowConstraints row = new RowConstraints(cellSize);
+            row.setValignment(VPos.CENTER);
+            boardGridpane.getRowConstraints().add(row);
+        }
     }
 
     /**
@@ -120,19 +319,25 @@ public class Game extends GameAbstract {
      */
     private void handleNumberField(TextField txt, int row, int col) {
 
-        // KEY TYPED: Restrict input to numbers 1-6 only (HU-2)
+        // KEY TYPED: Restrict input to numbers 1-size only (HU-2)
+        int maxDigits = String.valueOf(size).length();
         txt.setOnKeyTyped(event -> {
             String character = event.getCharacter();
 
-            // Allow only digits 1-6
-            if (!character.matches("[1-6]")) {
+            // Allow only digits (the range is checked on key release)
+            if (!character.matches("[0-9]")) {
                 event.consume(); // Block the input
             }
 
-            // Limit to single character
-            if (txt.getText().length() >= 1 && !character.isEmpty()) {
+            // Limit to as many characters as the largest number has
+            if (txt.getText().length() >= maxDigits && !character.isEmpty()) {
                 event.consume();
             }
+
+            // Until the key is released, no patch may replace the digit
+            if (!event.isConsumed()) {
+                cellInputs[row * size + col] = INPUT_NOT_QUEUED;
+            }
         });
 
         // KEY PRESSED: Handle deletion (HU-2)
@@ -140,260 +345,442 @@ public class Game extends GameAbstract {
             if (event.getCode() == KeyCode.BACK_SPACE ||
                     event.getCode() == KeyCode.DELETE) {
                 txt.setText("");
-                currentBoard.get(row).set(col, 0);
-                resetCellStyle(txt);
+                cellCleared(row, col);
                 event.consume();
             }
         });
 
         // KEY RELEASED: Validate input in real-time (HU-3)
-        txt.setOnKeyReleased(event -> {
-            String input = txt.getText().trim();
+        txt.setOnKeyReleased(event -> cellTyped(row, col, txt.getText().trim()));
 
-            if (input.isEmpty()) {
-                currentBoard.get(row).set(col, 0);
-                resetCellStyle(txt);
-                return;
+        // FOCUS LOST: Refresh the style from the conflict counters when user moves to another cell
+        txt.focusedProperty().addListener((observable, oldValue, newValue) -> {
+            if (!newValue) {
+                if (cellInputs[row * size + col] == INPUT_NOT_QUEUED) {
+                    cellTyped(row, col, txt.getText().trim());
+                }
+                cellLeft(row, col);
             }
+        });
+    }
+
+    /**
+     * Empties a cell after the player deleted its value (HU-2).
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     */
+    private void cellCleared(int row, int col) {
+        cellInputs[row * size + col] = model.submitMove(row * size + col, 0);
+    }
 
+    /**
+     * Parses the text the player typed in a cell and queues it for validation (HU-3). Anything
+     * that is not a number between 1 and size empties the cell.
+     *
+     * @param row   The row index of the cell.
+     * @param col   The column index of the cell.
+     * @param input The trimmed text of the cell.
+     */
+    private void cellTyped(int row, int col, String input) {
+        int number = 0;
+        if (!input.isEmpty()) {
             try {
-                int number = Integer.parseInt(input);
+                number = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                number = 0;
+            }
+        }
 
-                // Validate the number (1-6)
-                if (number < 1 || number > 6) {
-                    txt.setText("");
-                    currentBoard.get(row).set(col, 0);
-                    return;
-                }
+        // Validate the number (1-size)
+        if (number < 1 || number > size) {
+            number = 0;
+        }
+        cellInputs[row * size + col] = model.submitMove(row * size + col, number);
+    }
 
-                // Temporarily set to 0 to avoid self-conflict
-                currentBoard.get(row).set(col, 0);
+    /**
+     * Stores and validates a move on the model thread, then shows its result.
+     *
+     * @param cell   The cell index.
+     * @param number The digit the player entered, or 0 to empty the cell.
+     */
+    private void applyMove(int cell, int number) {
+        if (state.isGiven(cell)) {
+            return;
+        }
+        int row = cell / size;
+        int col = cell % size;
+        long start = System.nanoTime();
+        MoveValidationEvent event = new MoveValidationEvent();
+        event.begin();
+
+        // Store and validate the move against Sudoku rules
+        int result = setCell(row, col, number);
+        if (result == GameState.CLEARED) {
+            showCell(row, col, 0, CellState.EMPTY);
+            commitMove(event, start, cell, 0, true);
+            return;
+        }
 
-                // Validate against Sudoku rules
-                boolean isValid = validateMove(row, col, number);
+        boolean isValid = result != GameState.INVALID;
+        commitMove(event, start, cell, number, isValid);
 
-                if (isValid) {
-                    // Valid move
-                    currentBoard.get(row).set(col, number);
-                    setValidCellStyle(txt);
-                    System.out.println("Valid move: " + number + " at (" + row + ", " + col + ")");
+        if (isValid) {
+            // Valid move
+            showCell(row, col, number, CellState.VALID);
+            if (Log.isEnabled(Log.Level.DEBUG)) {
+                Log.debug("Valid move: %d at (%d, %d)", number, row, col);
+            }
 
-                    // Check if game is complete
-                    checkGameComplete();
-                } else {
-                    // Invalid move - show error
-                    currentBoard.get(row).set(col, number);
-                    setInvalidCellStyle(txt);
-                    System.out.println("Invalid move: " + number + " at (" + row + ", " + col + ")");
-                }
+            // Check if game is complete
+            checkGameComplete();
+        } else {
+            // Invalid move - show error
+            showCell(row, col, number, CellState.INVALID);
+            if (Log.isEnabled(Log.Level.DEBUG)) {
+                Log.debug("Invalid move: %d at (%d, %d)", number, row, col);
+            }
+        }
+    }
 
-            } catch (NumberFormatException e) {
-                txt.setText("");
-                currentBoard.get(row).set(col, 0);
+    private void commitMove(MoveValidationEvent event, long start, int cell, int number, boolean valid) {
+        SudokuMetrics.getInstance().moveValidated(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGeometry(geometry);
+            event.setMove(cell, number, valid);
+            event.commit();
+        }
+    }
+
+    /**
+     * Refreshes the style of a cell the player moved away from: other moves may have created
+     * or resolved a conflict with it.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     */
+    private void cellLeft(int row, int col) {
+        int cell = row * size + col;
+        if (state.isGiven(cell)) {
+            return;
+        }
+        model.submit(() -> {
+            int number = state.get(cell);
+            if (number != 0) {
+                showCell(row, col, number, state.hasConflict(cell) ? CellState.INVALID : CellState.VALID);
             }
         });
+    }
 
-        // FOCUS LOST: Re-validate when user moves to another cell
-        txt.focusedProperty().addListener((observable, oldValue, newValue) -> {
-            if (!newValue && !txt.getText().isEmpty()) {
-                // Lost focus
-                String input = txt.getText().trim();
-                if (!input.isEmpty()) {
-                    int number = Integer.parseInt(input);
-                    currentBoard.get(row).set(col, 0);
-                    boolean isValid = validateMove(row, col, number);
-                    currentBoard.get(row).set(col, number);
-
-                    if (isValid) {
-                        setValidCellStyle(txt);
-                    } else {
-                        setInvalidCellStyle(txt);
-                    }
+    /**
+     * Shows a value and a state in a cell of whichever view draws the board. On the model
+     * thread the change joins the UI patch of the current batch, and is dropped if the player
+     * has entered something newer in the cell by the time it runs.
+     *
+     * @param row    The row index of the cell.
+     * @param col    The column index of the cell.
+     * @param number The digit to show, or 0 to empty the cell.
+     * @param state  The state of the cell.
+     */
+    private void showCell(int row, int col, int number, CellState state) {
+        if (model.isModelThread()) {
+            long sequence = model.getCurrentSequence();
+            model.ui(() -> {
+                if (cellInputs[row * size + col] <= sequence) {
+                    drawCell(row, col, number, state);
                 }
-            }
-        });
+            });
+        } else {
+            drawCell(row, col, number, state);
+        }
     }
 
     /**
-     * Validates if a number can be placed at the specified position according to Sudoku rules.
-     * Checks row, column, and 2x3 block constraints.
+     * Updates the view of a cell; runs on the JavaFX thread.
      *
-     * @param row The row index.
-     * @param col The column index.
-     * @param number The number to validate.
-     * @return true if the move is valid, false otherwise.
-     */
-    private boolean validateMove(int row, int col, int number) {
-        // Check row
-        for (int j = 0; j < SIZE; j++) {
-            if (j != col && currentBoard.get(row).get(j) == number) {
-                return false;
+     * @param row    The row index of the cell.
+     * @param col    The column index of the cell.
+     * @param number The digit to show, or 0 to empty the cell.
+     * @param state  The state of the cell.
+     */
+    private void drawCell(int row, int col, int number, CellState state) {
+        CellStyleEvent event = new CellStyleEvent();
+        event.begin();
+        if (canvasView != null) {
+            canvasView.setCell(row, col, number, state);
+        } else {
+            TextField txt = numberFields.get(row * size + col);
+            String text = number == 0 ? "" : String.valueOf(number);
+            if (!txt.getText().equals(text)) {
+                txt.setText(text);
             }
+            state.applyTo(txt);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGeometry(geometry);
+            event.setCell(row * size + col, state.name(), renderer.name());
+            event.commit();
+        }
+    }
 
-        // Check column
-        for (int i = 0; i < SIZE; i++) {
-            if (i != row && currentBoard.get(i).get(col) == number) {
-                return false;
-            }
+    /**
+     * Plays a player's digit in the game state, which records the move in the journal, and
+     * updates the hint candidates.
+     *
+     * @param row    The row index.
+     * @param col    The column index.
+     * @param number The digit to store, or 0 to empty the cell.
+     * @return the result of the move as {@link GameState#resultOf(int)} describes it, also when
+     *         the cell already held the digit.
+     */
+    private int setCell(int row, int col, int number) {
+        int cell = row * size + col;
+        int result = state.play(cell, number);
+        if (result == GameState.REJECTED) {
+            return state.resultOf(cell);
         }
+        hintEngine.cellChanged(row, col);
+        MoveJournal journal = state.getJournal();
+        moveListener.accept(journal.get(journal.getPosition() - 1));
+        return result;
+    }
 
-        // Check 2x3 block
-        int blockRowStart = (row / BLOCK_ROWS) * BLOCK_ROWS;
-        int blockColStart = (col / BLOCK_COLS) * BLOCK_COLS;
+    /**
+     * Stores a digit in the game state and updates the hint candidates, without recording it.
+     *
+     * @param cell   The cell index.
+     * @param number The digit to store, or 0 to empty the cell.
+     */
+    private void applyCell(int cell, int number) {
+        state.apply(cell, number);
+        hintEngine.cellChanged(cell / size, cell % size);
+    }
 
-        for (int i = blockRowStart; i < blockRowStart + BLOCK_ROWS; i++) {
-            for (int j = blockColStart; j < blockColStart + BLOCK_COLS; j++) {
-                if ((i != row || j != col) && currentBoard.get(i).get(j) == number) {
-                    return false;
-                }
+    /**
+     * Takes back the last move. The board's conflict counters and the hint candidates are
+     * updated incrementally, exactly as for a move typed by the player. The move is undone on
+     * the model thread, after the input queued before it.
+     */
+    public void undo() {
+        model.submit(() -> {
+            long move = state.undo();
+            if (move == MoveJournal.NONE) {
+                return;
             }
-        }
+            showMove(MoveJournal.cellOf(move));
+            notifyChange(MoveJournal.cellOf(move), MoveJournal.newValueOf(move), MoveJournal.oldValueOf(move));
+        });
+    }
 
-        return true;
+    /**
+     * Makes again the last move taken back by {@link #undo()}, on the model thread.
+     */
+    public void redo() {
+        model.submit(() -> {
+            long move = state.redo();
+            if (move == MoveJournal.NONE) {
+                return;
+            }
+            showMove(MoveJournal.cellOf(move));
+            notifyChange(MoveJournal.cellOf(move), MoveJournal.oldValueOf(move), MoveJournal.newValueOf(move));
+            checkGameComplete();
+        });
     }
 
     /**
-     * Sets the style for a valid cell (no border highlight).
+     * Tells the move listener that undo or redo changed a cell.
      *
-     * @param txt The TextField to style.
+     * @param cell     The cell index.
+     * @param oldValue The value before the change.
+     * @param newValue The value after the change.
      */
-    private void setValidCellStyle(TextField txt) {
-        txt.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                "-fx-background-color: #000000; -fx-text-fill: #ffffff; " +
-                "-fx-border-color: #ffffff; -fx-border-width: 2px;");
+    private void notifyChange(int cell, int oldValue, int newValue) {
+        long elapsed = Math.max(0, System.currentTimeMillis() - state.getJournal().getStartMillis());
+        moveListener.accept(MoveJournal.pack(elapsed, cell, oldValue, newValue));
     }
 
     /**
-     * Sets the style for an invalid cell (red border as per HU-3).
+     * Sets the listener that receives every change of a cell made by the player, by a hint, or by
+     * undo and redo, packed as a {@link MoveJournal} move. It is called on the model thread.
      *
-     * @param txt The TextField to style.
+     * @param listener The listener.
      */
-    private void setInvalidCellStyle(TextField txt) {
-        txt.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                "-fx-background-color: white; -fx-text-fill: #000000; " +
-                "-fx-border-color: red; -fx-border-width: 3px;");
+    public void setMoveListener(LongConsumer listener) {
+        this.moveListener = listener;
     }
 
     /**
-     * Resets the cell style to default (for empty cells).
+     * Shows a cell the game state changed outside the player's typing, styled as its conflicts
+     * require, and updates its hint candidates.
      *
-     * @param txt The TextField to style.
+     * @param cell The cell index.
      */
-    private void resetCellStyle(TextField txt) {
-        txt.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                "-fx-background-color: #000000; -fx-text-fill: #ffffff;");
+    private void showMove(int cell) {
+        int row = cell / size;
+        int col = cell % size;
+        int number = state.get(cell);
+        hintEngine.cellChanged(row, col);
+
+        if (number == 0) {
+            showCell(row, col, 0, CellState.EMPTY);
+        } else {
+            showCell(row, col, number, state.hasConflict(cell) ? CellState.INVALID : CellState.VALID);
+        }
     }
 
     /**
      * Checks if the game board is complete and all entries are valid.
      * Shows a congratulations message if the player wins.
+     * The board keeps running filled-cell and conflict counts, so this check is constant time.
      */
     private void checkGameComplete() {
-        // Check if all cells are filled
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (currentBoard.get(i).get(j) == 0) {
-                    return; // Not complete yet
-                }
-            }
+        long start = System.nanoTime();
+        CompletionCheckEvent event = new CompletionCheckEvent();
+        event.begin();
+        boolean solved = state.isSolved();
+        event.end();
+        SudokuMetrics.getInstance().completionChecked(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.setGeometry(geometry);
+            event.setResult(state.getBoard().getFilledCount(), state.getBoard().getConflictCount(), solved);
+            event.commit();
         }
 
-        // Check if all entries are valid
-        boolean allValid = true;
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                int num = currentBoard.get(i).get(j);
-                currentBoard.get(i).set(j, 0);
-                if (!validateMove(i, j, num)) {
-                    allValid = false;
-                }
-                currentBoard.get(i).set(j, num);
-            }
-        }
-
-        if (allValid) {
-            System.out.println("¡Felicitaciones! Has completado el Sudoku correctamente.");
-            new AlertBox().showAlert(
+        if (solved) {
+            Log.info("¡Felicitaciones! Has completado el Sudoku correctamente.");
+            model.ui(() -> new AlertBox().showAlert(
                     "¡Victoria!",
                     "¡Felicitaciones! Has completado el Sudoku correctamente.",
                     Alert.AlertType.INFORMATION
-            );
+            ));
         }
     }
 
     /**
-     * Provides a hint to the player by suggesting a valid number for an empty cell.
+     * Provides a hint to the player by filling an empty cell with a logically forced digit.
      * Implements HU-4 (help feature).
-     *
-     * @return true if a hint was provided, false if no empty cells exist.
+     * <p>
+     * The hint engine looks for a naked single, a hidden single or a single uncovered by
+     * pointing/claiming eliminations. If none applies, or the player's mistakes make the
+     * deduction disagree with the solution, a random empty cell gets its solution digit.
+     * <p>
+     * The search runs on the model thread and is dropped if the player types while it runs,
+     * since the board it was computed for is about to change.
      */
-    public boolean provideHint() {
-        List<int[]> emptyCells = new ArrayList<>();
+    public void provideHint() {
+        model.submit(this::applyHint);
+    }
 
-        // Find all empty cells
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (currentBoard.get(i).get(j) == 0 && !preFilledCells.get(i).get(j)) {
-                    emptyCells.add(new int[]{i, j});
-                }
-            }
+    /**
+     * Searches a hint and fills its cell; runs on the model thread.
+     */
+    private void applyHint() {
+        long start = System.nanoTime();
+        HintEvent event = new HintEvent();
+        event.begin();
+        Hint hint = hintEngine.findHint(model::isInputPending);
+        if (hint == null && model.isInputPending()) {
+            commitHint(event, null, true);
+            Log.info("Hint cancelled: the board changed during the search");
+            return;
+        }
+        if (hint == null || hint.getDigit() != board.getSolution(hint.getRow(), hint.getCol())) {
+            hint = solutionHint();
         }
 
-        if (emptyCells.isEmpty()) {
-            new AlertBox().showAlert(
+        commitHint(event, hint, false);
+
+        if (hint == null) {
+            model.ui(() -> new AlertBox().showAlert(
                     "Sin ayuda disponible",
                     "No hay celdas vacías para sugerir.",
                     Alert.AlertType.INFORMATION
-            );
-            return false;
+            ));
+            return;
         }
 
-        // Pick a random empty cell
-        int[] cell = emptyCells.get((int)(Math.random() * emptyCells.size()));
-        int row = cell[0];
-        int col = cell[1];
+        int row = hint.getRow();
+        int col = hint.getCol();
+        int num = hint.getDigit();
+        setCell(row, col, num);
 
-        // Find a valid number for this cell
-        for (int num = 1; num <= SIZE; num++) {
-            if (validateMove(row, col, num)) {
-                // Found a valid number
-                int index = row * SIZE + col;
-                TextField cellField = numberFields.get(index);
+        // Highlight the hint temporarily
+        showCell(row, col, num, CellState.HINT);
+        SudokuMetrics.getInstance().hintServed(System.nanoTime() - start);
 
-                cellField.setText(String.valueOf(num));
-                currentBoard.get(row).set(col, num);
-                setValidCellStyle(cellField);
+        Log.info("Hint provided: %d at (%d, %d) - %s", num, row, col, hint.getTechnique().getDisplayName());
 
-                // Highlight the hint temporarily
-                cellField.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; " +
-                        "-fx-background-color: #230B2E; -fx-text-fill: #ffffff; " +
-                        "-fx-border-color: #4D285C; -fx-border-width: 3px;");
+        // Check if game is complete after hint
+        checkGameComplete();
+    }
 
-                System.out.println("Hint provided: " + num + " at (" + row + ", " + col + ")");
+    private void commitHint(HintEvent event, Hint hint, boolean cancelled) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGeometry(geometry);
+            event.setResult(hint == null ? null : hint.getTechnique().name(), hintEngine.getSearchNodes(), cancelled);
+            event.commit();
+        }
+    }
 
-                // Check if game is complete after hint
-                checkGameComplete();
+    /**
+     * Builds a hint from the stored solution for a random empty cell.
+     *
+     * @return the hint, or null if no empty cells exist.
+     */
+    private Hint solutionHint() {
+        // Pick a random empty cell; the puzzle has a unique solution, so the hint is its solution digit
+        int cell = state.randomEmptyCell(hintRandom);
+        if (cell < 0) {
+            return null;
+        }
+        return new Hint(cell / size, cell % size, state.getSolution(cell), Technique.SOLUTION);
+    }
 
-                return true;
-            }
+    /**
+     * @return the thread that owns the model, with its queue and latency measurements.
+     */
+    public ModelExecutor getModelExecutor() {
+        return model;
+    }
+
+    /**
+     * Runs the input still queued, stops the model thread and prints how fast the board answered.
+     */
+    public void shutdown() {
+        model.shutdown();
+        LatencyHistogram latency = model.getFeedbackLatency();
+        if (latency.getCount() > 0) {
+            Log.info("Feedback latency: p50 %.2f ms, p99 %.2f ms over %d inputs; "
+                            + "max queue %d, coalesced moves %d",
+                    latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6, latency.getCount(),
+                    model.getMaxQueueDepth(), model.getCoalescedMoves());
         }
+    }
 
-        // No valid number found (shouldn't happen in a solvable puzzle)
-        new AlertBox().showAlert(
-                "Error",
-                "No se encontró una sugerencia válida para esta celda.",
-                Alert.AlertType.ERROR
-        );
-        return false;
+    /**
+     * @return the journal of the player's moves.
+     */
+    public MoveJournal getJournal() {
+        return state.getJournal();
+    }
+
+    /**
+     * @return the UI-independent state of the game; it belongs to the model thread.
+     */
+    public GameState getState() {
+        return state;
     }
 
     /**
      * Gets the current board state.
      *
-     * @return The current board as a list of lists.
+     * @return A read-only view of the current board as a list of lists.
      */
     public List<List<Integer>> getCurrentBoard() {
-        return currentBoard;
+        return state.getBoard().asList();
     }
 }
\ No newline at end of file
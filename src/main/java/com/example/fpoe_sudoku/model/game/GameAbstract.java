@@ -1,6 +1,8 @@
 package com.example.fpoe_sudoku.model.game;
 
 import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzlePool;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
 
@@ -19,16 +21,45 @@ public class GameAbstract implements IGame {
     protected ArrayList<TextField> numberFields;
 
     /**
-     * Constructs a GameAbstract instance, initializing the board and UI components.
+     * Constructs a GameAbstract instance with a 6x6 board.
      *
      * @param boardGridpane The GridPane that will contain the Sudoku cells.
      */
     public GameAbstract(GridPane boardGridpane) {
+        this(boardGridpane, BoardGeometry.SIX);
+    }
+
+    /**
+     * Constructs a GameAbstract instance, initializing the board and UI components.
+     * The board is taken from the shared {@link PuzzlePool}, so it is normally ready without
+     * generating anything on the calling (JavaFX) thread.
+     *
+     * @param boardGridpane The GridPane that will contain the Sudoku cells.
+     * @param geometry      The shape of the board to generate.
+     */
+    public GameAbstract(GridPane boardGridpane, BoardGeometry geometry) {
+        this(boardGridpane, PuzzlePool.shared(geometry).takeOrGenerate());
+    }
+
+    /**
+     * Constructs a GameAbstract instance that plays an existing board.
+     *
+     * @param boardGridpane The GridPane that will contain the Sudoku cells.
+     * @param board         The puzzle to play.
+     */
+    public GameAbstract(GridPane boardGridpane, Board board) {
         this.boardGridpane = boardGridpane;
-        this.board = new Board();
+        this.board = board;
         this.numberFields = new ArrayList<TextField>();
     }
 
+    /**
+     * @return the puzzle being played.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
     /**
      * {@inheritDoc}
      */
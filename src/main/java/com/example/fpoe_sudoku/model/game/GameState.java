@@ -0,0 +1,280 @@
+package com.example.fpoe_sudoku.model.game;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * State and rules of one game, with no dependency on any UI toolkit, so games can be played on a
+ * server or in tests as well as behind the JavaFX board.
+ * <p>
+ * The state is a {@link BitBoard} with the clues and the player's digits, a {@link MoveJournal}
+ * for undo and redo, and the clues and solution of the puzzle. Clues and solution never change,
+ * so they are packed once into a bitset and a byte array and shared by every game started from the
+ * same puzzle with {@link #newGame()}. An idle 9x9 game then takes well under a kilobyte.
+ * <p>
+ * Cells are addressed by their row-major index. Games are not thread-safe; the
+ * {@link SessionManager} serializes the access to each of them.
+ */
+public class GameState {
+    /** Result of a move whose digit breaks no rule. */
+    public static final int VALID = 0;
+    /** Result of a move whose digit is repeated in its row, column or block. */
+    public static final int INVALID = 1;
+    /** Result of a move that emptied a cell. */
+    public static final int CLEARED = 2;
+    /** Result of a move that completed the board correctly. */
+    public static final int SOLVED = 3;
+    /** Result of a move on a clue, with a value out of range, or that changes nothing. */
+    public static final int REJECTED = -1;
+
+    private final BoardGeometry geometry;
+
+    // Clue cells, one bit per cell (shared between the games of a puzzle)
+    private final long[] givens;
+
+    // Solution in row-major order (shared between the games of a puzzle)
+    private final byte[] solution;
+
+    // Clues and the player's digits
+    private final BitBoard board;
+
+    // Player moves, for undo and redo
+    private final MoveJournal journal = new MoveJournal();
+
+    /**
+     * Starts a game on a puzzle.
+     *
+     * @param geometry the shape of the board.
+     * @param puzzle   the clues in row-major order (0 = empty).
+     * @param solution the solution in row-major order.
+     */
+    public GameState(BoardGeometry geometry, int[] puzzle, int[] solution) {
+        this(geometry, givensOf(puzzle), pack(solution));
+    }
+
+    /**
+     * Starts a game on a generated board.
+     *
+     * @param board the puzzle to play.
+     */
+    public GameState(Board board) {
+        this(board.getGeometry(), board.toArray(), board.solutionToArray());
+    }
+
+    private GameState(BoardGeometry geometry, long[] givens, byte[] solution) {
+        this.geometry = geometry;
+        this.givens = givens;
+        this.solution = solution;
+        this.board = new BitBoard(geometry);
+        for (int cell = 0; cell < solution.length; cell++) {
+            if (isGiven(cell)) {
+                board.place(cell / geometry.getSize(), cell % geometry.getSize(), solution[cell]);
+            }
+        }
+    }
+
+    /**
+     * Starts another game on the same puzzle, sharing its clues and solution.
+     *
+     * @return a game with only the clues filled in.
+     */
+    public GameState newGame() {
+        return new GameState(geometry, givens, solution);
+    }
+
+    /**
+     * @return the shape of the board.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return the number of cells.
+     */
+    public int getCellCount() {
+        return solution.length;
+    }
+
+    /**
+     * @param cell the cell index.
+     * @return the digit in the cell, or 0 if it is empty.
+     */
+    public int get(int cell) {
+        int size = geometry.getSize();
+        return board.get(cell / size, cell % size);
+    }
+
+    /**
+     * @param cell the cell index.
+     * @return true if the cell is a clue, which the player cannot change.
+     */
+    public boolean isGiven(int cell) {
+        return (givens[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @param cell the cell index.
+     * @return the digit of the solution in the cell.
+     */
+    public int getSolution(int cell) {
+        return solution[cell];
+    }
+
+    /**
+     * @param cell the cell index.
+     * @return true if the cell holds a digit repeated in its row, column or block.
+     */
+    public boolean hasConflict(int cell) {
+        int size = geometry.getSize();
+        return board.hasConflict(cell / size, cell % size);
+    }
+
+    /**
+     * @return true if every cell holds a digit and no digit is repeated in any unit.
+     */
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+
+    /**
+     * @return the board with the clues and the player's digits, e.g. for a hint engine. It must
+     *         only be changed through this game.
+     */
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * @return the journal of the player's moves.
+     */
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Plays a move and records it in the journal.
+     *
+     * @param cell  the cell index.
+     * @param value the digit to enter (1 to size), or 0 to empty the cell.
+     * @return {@link #VALID}, {@link #INVALID}, {@link #CLEARED}, {@link #SOLVED}, or
+     *         {@link #REJECTED} if nothing changed.
+     */
+    public int play(int cell, int value) {
+        if (cell < 0 || cell >= solution.length || value < 0 || value > geometry.getSize() || isGiven(cell)) {
+            return REJECTED;
+        }
+        int previous = get(cell);
+        if (previous == value) {
+            return REJECTED;
+        }
+        apply(cell, value);
+        journal.record(cell, previous, value);
+        return resultOf(cell);
+    }
+
+    /**
+     * Stores a digit without recording it, e.g. to restore a saved game.
+     *
+     * @param cell  the cell index.
+     * @param value the digit, or 0 to empty the cell.
+     */
+    public void apply(int cell, int value) {
+        int size = geometry.getSize();
+        board.place(cell / size, cell % size, value);
+    }
+
+    /**
+     * Takes back the last move and restores the old value of its cell.
+     *
+     * @return the packed move, or {@link MoveJournal#NONE} if there was nothing to undo.
+     */
+    public long undo() {
+        long move = journal.undo();
+        if (move != MoveJournal.NONE) {
+            apply(MoveJournal.cellOf(move), MoveJournal.oldValueOf(move));
+        }
+        return move;
+    }
+
+    /**
+     * Makes again the last move taken back by {@link #undo()}.
+     *
+     * @return the packed move, or {@link MoveJournal#NONE} if there was nothing to redo.
+     */
+    public long redo() {
+        long move = journal.redo();
+        if (move != MoveJournal.NONE) {
+            apply(MoveJournal.cellOf(move), MoveJournal.newValueOf(move));
+        }
+        return move;
+    }
+
+    /**
+     * Describes the current value of a cell the way {@link #play(int, int)} does.
+     *
+     * @param cell the cell index.
+     * @return {@link #VALID}, {@link #INVALID}, {@link #CLEARED} or {@link #SOLVED}.
+     */
+    public int resultOf(int cell) {
+        if (get(cell) == 0) {
+            return CLEARED;
+        }
+        if (hasConflict(cell)) {
+            return INVALID;
+        }
+        return board.isSolved() ? SOLVED : VALID;
+    }
+
+    /**
+     * Picks a random empty cell, for a hint taken from the solution.
+     *
+     * @param random the source of the choice.
+     * @return the cell index, or -1 if no cell is empty.
+     */
+    public int randomEmptyCell(RandomGenerator random) {
+        int empty = solution.length - board.getFilledCount();
+        if (empty <= 0) {
+            return -1;
+        }
+        int skip = random.nextInt(empty);
+        for (int cell = 0; cell < solution.length; cell++) {
+            if (get(cell) == 0 && skip-- == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the current values, clues included.
+     *
+     * @return the values in row-major order (0 = empty).
+     */
+    public int[] toArray() {
+        int[] cells = new int[solution.length];
+        board.copyTo(cells);
+        return cells;
+    }
+
+    private static long[] givensOf(int[] puzzle) {
+        long[] bits = new long[(puzzle.length + 63) >>> 6];
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] != 0) {
+                bits[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return bits;
+    }
+
+    private static byte[] pack(int[] values) {
+        byte[] packed = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            packed[i] = (byte) values[i];
+        }
+        return packed;
+    }
+}
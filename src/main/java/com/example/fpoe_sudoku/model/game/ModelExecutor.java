@@ -0,0 +1,264 @@
+package com.example.fpoe_sudoku.model.game;
+
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+import com.example.fpoe_sudoku.utils.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single thread that owns the game model, so validation and hint searches never run on the
+ * JavaFX Application Thread.
+ * <p>
+ * The UI submits moves and tasks, which the model thread runs in submission order. A move for the
+ * same cell as the last queued move replaces it, so a burst of keystrokes in one cell is applied
+ * once. The model thread drains everything queued in one go; the UI changes that the events ask
+ * for with {@link #ui(Runnable)} are collected and published together through one call to the
+ * publisher (normally {@code Platform::runLater}), so a burst of events costs one UI patch.
+ * <p>
+ * Long tasks such as hint searches can poll {@link #isInputPending()} and give up when newer
+ * input is waiting, since their result would be stale. Every event gets a sequence number, so the
+ * UI can also tell whether a patch was made before its latest input and drop it.
+ * <p>
+ * The executor measures the queue depth and the latency from each input to the moment its UI
+ * patch has been applied.
+ */
+public class ModelExecutor {
+
+    /**
+     * Applies a move to the model; runs on the model thread.
+     */
+    public interface MoveHandler {
+        /**
+         * @param cell  the cell index.
+         * @param value the new value of the cell, or 0 to empty it.
+         */
+        void apply(int cell, int value);
+    }
+
+    private final MoveHandler moves;
+    private final Consumer<Runnable> publisher;
+    private final Thread thread;
+    private final LatencyHistogram feedbackLatency = new LatencyHistogram();
+
+    // Events waiting for the model thread, guarded by this
+    private final ArrayDeque<Event> queue = new ArrayDeque<>();
+    private int maxQueueDepth;
+    private long coalesced;
+    private long lastSequence;
+    private boolean running = true;
+
+    // UI changes requested by the events of the current batch (model thread only)
+    private List<Runnable> patch = new ArrayList<>();
+    // Events of the current batch behind the one being run
+    private volatile int batchRemaining;
+    // Sequence number of the event being run (model thread only)
+    private long currentSequence;
+
+    /**
+     * One queued input. A move has no task.
+     */
+    private static final class Event {
+        private final long submittedNanos;
+        private long sequence;
+        private final int cell;
+        private int value;
+        private final Runnable task;
+
+        private Event(long submittedNanos, long sequence, int cell, int value, Runnable task) {
+            this.submittedNanos = submittedNanos;
+            this.sequence = sequence;
+            this.cell = cell;
+            this.value = value;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Creates the executor and starts its thread.
+     *
+     * @param name      the name of the model thread.
+     * @param moves     the handler of submitted moves.
+     * @param publisher runs a UI patch on the UI thread, e.g. {@code Platform::runLater}.
+     */
+    public ModelExecutor(String name, MoveHandler moves, Consumer<Runnable> publisher) {
+        this.moves = moves;
+        this.publisher = publisher;
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a move. If the last queued event is a move for the same cell, it is replaced and
+     * takes the new sequence number.
+     *
+     * @param cell  the cell index.
+     * @param value the new value of the cell, or 0 to empty it.
+     * @return the sequence number of the move.
+     */
+    public synchronized long submitMove(int cell, int value) {
+        Event last = queue.peekLast();
+        if (last != null && last.task == null && last.cell == cell) {
+            last.value = value;
+            last.sequence = ++lastSequence;
+            coalesced++;
+            return last.sequence;
+        }
+        enqueue(new Event(System.nanoTime(), ++lastSequence, cell, value, null));
+        return lastSequence;
+    }
+
+    /**
+     * Queues a task for the model thread.
+     *
+     * @param task the task.
+     */
+    public synchronized void submit(Runnable task) {
+        enqueue(new Event(System.nanoTime(), ++lastSequence, -1, 0, task));
+    }
+
+    /**
+     * Adds a change to the UI patch of the current batch. Must be called on the model thread.
+     *
+     * @param change the change, run later on the UI thread.
+     */
+    public void ui(Runnable change) {
+        patch.add(change);
+    }
+
+    /**
+     * Must be called on the model thread.
+     *
+     * @return the sequence number of the event being run; a UI patch made now reflects every
+     *         input up to this number.
+     */
+    public long getCurrentSequence() {
+        return currentSequence;
+    }
+
+    /**
+     * @return true if the caller is the model thread.
+     */
+    public boolean isModelThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * @return true if input is waiting behind the event being run, either later in its batch or
+     *         still queued, or the executor is shutting down.
+     */
+    public boolean isInputPending() {
+        if (batchRemaining > 0) {
+            return true;
+        }
+        synchronized (this) {
+            return !queue.isEmpty() || !running;
+        }
+    }
+
+    /**
+     * @return the number of events waiting for the model thread.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the largest number of events that were waiting at the same time.
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return the number of moves merged into an earlier move for the same cell.
+     */
+    public synchronized long getCoalescedMoves() {
+        return coalesced;
+    }
+
+    /**
+     * @return the latencies between submitting an input and applying its UI patch.
+     */
+    public LatencyHistogram getFeedbackLatency() {
+        return feedbackLatency;
+    }
+
+    /**
+     * Stops the model thread once the events already queued have run, waiting at most one second
+     * for them.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Event event) {
+        queue.addLast(event);
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        notifyAll();
+    }
+
+    /**
+     * Body of the model thread: runs every queued event, then publishes their UI patch.
+     */
+    private void run() {
+        List<Event> batch = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                while (queue.isEmpty() && running) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                batch.addAll(queue);
+                queue.clear();
+            }
+
+            long[] submitted = new long[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                Event event = batch.get(i);
+                submitted[i] = event.submittedNanos;
+                batchRemaining = batch.size() - i - 1;
+                currentSequence = event.sequence;
+                try {
+                    if (event.task == null) {
+                        moves.apply(event.cell, event.value);
+                    } else {
+                        event.task.run();
+                    }
+                } catch (RuntimeException e) {
+                    Log.error("Error en el hilo del modelo: %s", e);
+                }
+            }
+            batch.clear();
+
+            List<Runnable> changes = patch;
+            patch = new ArrayList<>();
+            publisher.accept(() -> {
+                for (Runnable change : changes) {
+                    change.run();
+                }
+                long now = System.nanoTime();
+                for (long start : submitted) {
+                    feedbackLatency.record(now - start);
+                }
+            });
+        }
+    }
+}
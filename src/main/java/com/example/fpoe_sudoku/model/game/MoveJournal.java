@@ -0,0 +1,240 @@
+package com.example.fpoe_sudoku.model.game;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+
+import java.util.Arrays;
+
+/**
+ * History of the moves of one game, with undo and redo.
+ * <p>
+ * Every move is packed into a single {@code long} of a growable array:
+ * <pre>
+ * bits 63-32: milliseconds since the journal was started
+ * bits 31-16: cell index (row * size + col)
+ * bits 15-8:  value before the move (0 = empty)
+ * bits 7-0:   value after the move (0 = empty)
+ * </pre>
+ * The moves before {@link #getPosition()} are applied, the ones after it were undone and can be
+ * redone. Undo and redo only move that position, and recording a move drops the moves that were
+ * undone, as in any editor. Replaying a journal onto a {@link BitBoard} goes through its
+ * incremental updates, so a whole session is rebuilt without any validation pass.
+ * <p>
+ * The move array is only allocated by the first move and starts small, so the journals of the
+ * many short games of a server stay small.
+ * <p>
+ * Journals are not thread-safe.
+ */
+public class MoveJournal {
+    /** Returned by {@link #undo()} and {@link #redo()} when there is no move to step over. */
+    public static final long NONE = -1;
+
+    // Capacity of the move array after the first move; it doubles from there.
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Shared move array of journals without moves.
+    private static final long[] EMPTY = new long[0];
+
+    private final long startMillis;
+    private long[] moves;
+    private int size;
+    private int position;
+
+    /**
+     * Creates an empty journal that starts now.
+     */
+    public MoveJournal() {
+        this(System.currentTimeMillis(), EMPTY, 0);
+    }
+
+    private MoveJournal(long startMillis, long[] moves, int size) {
+        this.startMillis = startMillis;
+        this.moves = moves;
+        this.size = size;
+        this.position = size;
+    }
+
+    /**
+     * Rebuilds a journal from moves returned by {@link #toArray()}, with every move applied.
+     *
+     * @param startMillis the start time of the journal, in epoch milliseconds.
+     * @param moves       the packed moves.
+     * @return the journal.
+     */
+    public static MoveJournal of(long startMillis, long[] moves) {
+        return new MoveJournal(startMillis, Arrays.copyOf(moves, Math.max(moves.length, INITIAL_CAPACITY)),
+                moves.length);
+    }
+
+    /**
+     * Packs a move.
+     *
+     * @param elapsedMillis the milliseconds since the start of the journal.
+     * @param cell          the cell index.
+     * @param oldValue      the value before the move.
+     * @param newValue      the value after the move.
+     * @return the packed move.
+     */
+    public static long pack(long elapsedMillis, int cell, int oldValue, int newValue) {
+        return elapsedMillis << 32 | (long) cell << 16 | oldValue << 8 | newValue;
+    }
+
+    /**
+     * @param move a packed move.
+     * @return the milliseconds between the start of the journal and the move.
+     */
+    public static long elapsedMillisOf(long move) {
+        return move >>> 32;
+    }
+
+    /**
+     * @param move a packed move.
+     * @return the cell index of the move.
+     */
+    public static int cellOf(long move) {
+        return (int) (move >>> 16) & 0xFFFF;
+    }
+
+    /**
+     * @param move a packed move.
+     * @return the value of the cell before the move.
+     */
+    public static int oldValueOf(long move) {
+        return (int) (move >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param move a packed move.
+     * @return the value of the cell after the move.
+     */
+    public static int newValueOf(long move) {
+        return (int) move & 0xFF;
+    }
+
+    /**
+     * Records a move made now. Moves that were undone can no longer be redone.
+     *
+     * @param cell     the cell index.
+     * @param oldValue the value before the move.
+     * @param newValue the value after the move.
+     */
+    public void record(int cell, int oldValue, int newValue) {
+        long elapsed = Math.max(0, System.currentTimeMillis() - startMillis);
+        append(pack(Math.min(elapsed, 0xFFFFFFFFL), cell, oldValue, newValue));
+    }
+
+    /**
+     * Appends an already packed move. Moves that were undone can no longer be redone.
+     *
+     * @param move the packed move.
+     */
+    public void append(long move) {
+        if (position == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(INITIAL_CAPACITY, moves.length * 2));
+        }
+        moves[position++] = move;
+        size = position;
+    }
+
+    /**
+     * Steps back over the last applied move. The caller restores its old value.
+     *
+     * @return the move, or {@link #NONE} if no move is applied.
+     */
+    public long undo() {
+        return position > 0 ? moves[--position] : NONE;
+    }
+
+    /**
+     * Steps forward over the first undone move. The caller applies its new value again.
+     *
+     * @return the move, or {@link #NONE} if no move was undone.
+     */
+    public long redo() {
+        return position < size ? moves[position++] : NONE;
+    }
+
+    /**
+     * @return true if there is a move to undo.
+     */
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    /**
+     * @return true if there is a move to redo.
+     */
+    public boolean canRedo() {
+        return position < size;
+    }
+
+    /**
+     * @return the number of applied moves.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the number of recorded moves, including the undone ones.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the start time of the journal, in epoch milliseconds.
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Returns a recorded move.
+     *
+     * @param index the move index, from 0 to {@link #size()} - 1.
+     * @return the packed move.
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return a copy of the applied moves.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(moves, position);
+    }
+
+    /**
+     * Applies the first moves of the journal to a board, which should hold the position the
+     * journal started from.
+     *
+     * @param board the board to update.
+     * @param count the number of moves to apply.
+     */
+    public void replay(BitBoard board, int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("Cannot replay " + count + " of " + size + " moves");
+        }
+        replay(moves, count, board);
+    }
+
+    /**
+     * Applies packed moves to a board.
+     *
+     * @param moves the packed moves.
+     * @param count the number of moves to apply, from the first one.
+     * @param board the board to update.
+     */
+    public static void replay(long[] moves, int count, BitBoard board) {
+        int size = board.size();
+        for (int i = 0; i < count; i++) {
+            long move = moves[i];
+            int cell = cellOf(move);
+            board.place(cell / size, cell % size, newValueOf(move));
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.fpoe_sudoku.model.game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Registry of many concurrent headless games, addressed by a numeric session id.
+ * <p>
+ * Sessions are spread over a fixed number of stripes by a hash of their id. Every stripe is an
+ * open-addressing table of primitive {@code long} ids and {@link GameState} references, guarded
+ * by its own monitor: a session is only ever touched while its stripe is locked, so games need no
+ * lock of their own, and requests for sessions of different stripes run in parallel. A session
+ * costs its {@link GameState} plus two table slots, with no boxed key and no map entry.
+ * <p>
+ * Ids are never reused, so a stale id of a closed session never reaches another game.
+ */
+public class SessionManager {
+    // Largest share of a stripe's slots in use before the stripe grows.
+    private static final double MAX_LOAD = 0.6;
+
+    // Marks an empty slot; ids start at 1.
+    private static final long FREE = 0;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * One lock and the open-addressing table of the sessions it guards.
+     */
+    private static final class Stripe {
+        private long[] ids;
+        private GameState[] states;
+        private int count;
+
+        private Stripe(int capacity) {
+            ids = new long[capacity];
+            states = new GameState[capacity];
+        }
+    }
+
+    /**
+     * Creates a manager with four stripes per processor, and at least 16.
+     */
+    public SessionManager() {
+        this(Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param stripes the number of stripes, rounded up to a power of two.
+     */
+    public SessionManager(int stripes) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(16);
+        }
+    }
+
+    /**
+     * Registers a game.
+     *
+     * @param state the game; the manager owns it from now on.
+     * @return the id of the new session.
+     */
+    public long open(GameState state) {
+        long id = nextId.getAndIncrement();
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            if (stripe.count + 1 > stripe.ids.length * MAX_LOAD) {
+                grow(stripe);
+            }
+            insert(stripe, id, state);
+        }
+        return id;
+    }
+
+    /**
+     * Plays a move in a session.
+     *
+     * @param id    the session id.
+     * @param cell  the cell index.
+     * @param value the digit, or 0 to empty the cell.
+     * @return the result of {@link GameState#play(int, int)}, or {@link GameState#REJECTED} if the
+     *         session does not exist.
+     */
+    public int play(long id, int cell, int value) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            int slot = find(stripe, id);
+            return slot < 0 ? GameState.REJECTED : stripe.states[slot].play(cell, value);
+        }
+    }
+
+    /**
+     * Takes back the last move of a session.
+     *
+     * @param id the session id.
+     * @return the packed move, or {@link MoveJournal#NONE} if there was nothing to undo or no session.
+     */
+    public long undo(long id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            int slot = find(stripe, id);
+            return slot < 0 ? MoveJournal.NONE : stripe.states[slot].undo();
+        }
+    }
+
+    /**
+     * Makes again the last move taken back in a session.
+     *
+     * @param id the session id.
+     * @return the packed move, or {@link MoveJournal#NONE} if there was nothing to redo or no session.
+     */
+    public long redo(long id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            int slot = find(stripe, id);
+            return slot < 0 ? MoveJournal.NONE : stripe.states[slot].redo();
+        }
+    }
+
+    /**
+     * Runs an action on a session while it is locked. The action must not keep the game, nor
+     * call back into this manager.
+     *
+     * @param id     the session id.
+     * @param action the action.
+     * @param <R>    the type of the result.
+     * @return the result of the action, or null if the session does not exist.
+     */
+    public <R> R withSession(long id, Function<? super GameState, R> action) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            int slot = find(stripe, id);
+            return slot < 0 ? null : action.apply(stripe.states[slot]);
+        }
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param id the session id.
+     * @return true if the session existed.
+     */
+    public boolean close(long id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            int slot = find(stripe, id);
+            if (slot < 0) {
+                return false;
+            }
+            remove(stripe, slot);
+            return true;
+        }
+    }
+
+    /**
+     * @return the number of open sessions. Each stripe is counted under its lock, so the total
+     *         is exact only when no session is being opened or closed.
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.count;
+            }
+        }
+        return total;
+    }
+
+    private Stripe stripeOf(long id) {
+        return stripes[(int) (mix(id) >>> 32) & stripeMask];
+    }
+
+    private static long mix(long id) {
+        return id * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int home(Stripe stripe, long id) {
+        return (int) mix(id) & (stripe.ids.length - 1);
+    }
+
+    private static int find(Stripe stripe, long id) {
+        int mask = stripe.ids.length - 1;
+        for (int slot = home(stripe, id); ; slot = (slot + 1) & mask) {
+            long current = stripe.ids[slot];
+            if (current == id) {
+                return slot;
+            }
+            if (current == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    private static void insert(Stripe stripe, long id, GameState state) {
+        int mask = stripe.ids.length - 1;
+        int slot = home(stripe, id);
+        while (stripe.ids[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        stripe.ids[slot] = id;
+        stripe.states[slot] = state;
+        stripe.count++;
+    }
+
+    /**
+     * Empties a slot, shifting back the entries of the probe run behind it so lookups never
+     * need tombstones.
+     */
+    private static void remove(Stripe stripe, int slot) {
+        int mask = stripe.ids.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; stripe.ids[next] != FREE; next = (next + 1) & mask) {
+            int home = home(stripe, stripe.ids[next]);
+            // Move the entry back if the hole lies on its probe path from its home slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                stripe.ids[hole] = stripe.ids[next];
+                stripe.states[hole] = stripe.states[next];
+                hole = next;
+            }
+        }
+        stripe.ids[hole] = FREE;
+        stripe.states[hole] = null;
+        stripe.count--;
+    }
+
+    private static void grow(Stripe stripe) {
+        long[] ids = stripe.ids;
+        GameState[] states = stripe.states;
+        stripe.ids = new long[ids.length * 2];
+        stripe.states = new GameState[ids.length * 2];
+        stripe.count = 0;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != FREE) {
+                insert(stripe, ids[slot], states[slot]);
+            }
+        }
+        Arrays.fill(states, null);
+    }
+}
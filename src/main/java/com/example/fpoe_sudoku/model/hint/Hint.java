@@ -0,0 +1,60 @@
+package com.example.fpoe_sudoku.model.hint;
+
+/**
+ * A suggested move together with the technique that justifies it.
+ * Instances are immutable.
+ */
+public final class Hint {
+    private final int row;
+    private final int col;
+    private final int digit;
+    private final Technique technique;
+
+    /**
+     * Creates a hint.
+     *
+     * @param row       the row index of the cell.
+     * @param col       the column index of the cell.
+     * @param digit     the digit to place.
+     * @param technique the hardest technique needed to deduce the move.
+     */
+    public Hint(int row, int col, int digit, Technique technique) {
+        this.row = row;
+        this.col = col;
+        this.digit = digit;
+        this.technique = technique;
+    }
+
+    /**
+     * @return the row index of the cell.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return the column index of the cell.
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * @return the digit to place.
+     */
+    public int getDigit() {
+        return digit;
+    }
+
+    /**
+     * @return the hardest technique needed to deduce the move.
+     */
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    @Override
+    public String toString() {
+        return digit + " at (" + row + ", " + col + ") by " + technique;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.fpoe_sudoku.model.hint;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds logically forced moves on a board through constraint propagation.
+ * <p>
+ * The engine keeps a candidate bitmask for every cell (bit {@code n - 1} set when digit
+ * {@code n} still fits). The masks are updated incrementally: after a cell changes only the
+ * cell and its peers are recomputed, from the occupancy masks of the watched {@link BitBoard}.
+ * <p>
+ * {@link #findHint()} works on a scratch copy of the masks and tries, in order, naked singles,
+ * hidden singles, and pointing/claiming eliminations followed by another round of singles.
+ * It never allocates apart from the returned {@link Hint}.
+ * <p>
+ * The engine treats the digits on the board as given, so a hint is only guaranteed to match the
+ * real solution while the player has made no mistakes.
+ */
+public class HintEngine {
+    private final BitBoard board;
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+
+    // Cells of every unit: rows first, then columns, then blocks, size cells each.
+    private final int[] unitCells;
+
+    // Candidate mask of every cell, kept in sync with the board (0 for filled cells).
+    private final int[] candidates;
+
+    // Scratch copy of the candidates used while searching for a hint.
+    private final int[] work;
+
+    // Cells and units examined by the last search.
+    private long searchNodes;
+
+    /**
+     * Creates an engine watching a board and computes the initial candidates.
+     *
+     * @param board the board to take hints for.
+     */
+    public HintEngine(BitBoard board) {
+        this.board = board;
+        this.geometry = board.getGeometry();
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.candidates = new int[cellCount];
+        this.work = new int[cellCount];
+
+        unitCells = new int[3 * size * size];
+        int[] blockFill = new int[size];
+        for (int index = 0; index < cellCount; index++) {
+            int row = geometry.rowOf(index);
+            int col = geometry.colOf(index);
+            int block = geometry.blockOf(index);
+            unitCells[row * size + col] = index;
+            unitCells[(size + col) * size + row] = index;
+            unitCells[(2 * size + block) * size + blockFill[block]++] = index;
+        }
+        reset();
+    }
+
+    /**
+     * Recomputes every candidate mask from the board.
+     */
+    public void reset() {
+        for (int index = 0; index < cellCount; index++) {
+            refresh(index);
+        }
+    }
+
+    /**
+     * Updates the candidates after a cell of the board has changed.
+     *
+     * @param row the row index of the changed cell.
+     * @param col the column index of the changed cell.
+     */
+    public void cellChanged(int row, int col) {
+        int block = geometry.blockOf(row, col);
+        for (int i = 0; i < size; i++) {
+            refresh(unitCells[row * size + i]);
+            refresh(unitCells[(size + col) * size + i]);
+            refresh(unitCells[(2 * size + block) * size + i]);
+        }
+    }
+
+    /**
+     * Returns the candidates of a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return a bitmask where bit {@code n - 1} is set if digit {@code n} still fits, or 0 if
+     *         the cell is filled.
+     */
+    public int getCandidates(int row, int col) {
+        return candidates[row * size + col];
+    }
+
+    /**
+     * Searches for a move that is forced by the current board.
+     *
+     * @return the hint, or null if no technique applies or the board contradicts itself.
+     */
+    public Hint findHint() {
+        return findHint(() -> false);
+    }
+
+    /**
+     * Searches for a move that is forced by the current board, giving up as soon as the search
+     * becomes useless. Cancellation is checked before every pass over the board.
+     *
+     * @param cancelled tells whether the search should stop, e.g. because the board is about to change.
+     * @return the hint, or null if the search was cancelled, no technique applies or the board
+     * contradicts itself.
+     */
+    public Hint findHint(BooleanSupplier cancelled) {
+        System.arraycopy(candidates, 0, work, 0, cellCount);
+        searchNodes = 0;
+        Technique needed = Technique.NAKED_SINGLE;
+        while (!cancelled.getAsBoolean()) {
+            // Naked singles (and dead cells, which mean the board has a mistake)
+            for (int index = 0; index < cellCount; index++) {
+                searchNodes++;
+                int mask = work[index];
+                if (mask == 0 && board.get(geometry.rowOf(index), geometry.colOf(index)) == 0) {
+                    return null;
+                }
+                if (mask != 0 && (mask & (mask - 1)) == 0) {
+                    return hint(index, mask, needed);
+                }
+            }
+
+            // Hidden singles
+            for (int unit = 0; unit < 3 * size; unit++) {
+                searchNodes++;
+                int once = 0;
+                int twice = 0;
+                int base = unit * size;
+                for (int i = 0; i < size; i++) {
+                    int mask = work[unitCells[base + i]];
+                    twice |= once & mask;
+                    once |= mask;
+                }
+                int single = once & ~twice;
+                if (single != 0) {
+                    int bit = Integer.lowestOneBit(single);
+                    for (int i = 0; i < size; i++) {
+                        int index = unitCells[base + i];
+                        if ((work[index] & bit) != 0) {
+                            return hint(index, bit, max(needed, Technique.HIDDEN_SINGLE));
+                        }
+                    }
+                }
+            }
+
+            // Locked candidates, then retry the singles with the reduced masks
+            if (pointing()) {
+                needed = max(needed, Technique.POINTING);
+            } else if (claiming()) {
+                needed = max(needed, Technique.CLAIMING);
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of cells and units examined by the last call to {@link #findHint()},
+     *         a measure of the work a hint took that does not depend on the machine.
+     */
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * Removes digits whose candidates inside a block lie on a single row or column from the rest
+     * of that line.
+     *
+     * @return true if any candidate was removed.
+     */
+    private boolean pointing() {
+        boolean changed = false;
+        for (int block = 0; block < size; block++) {
+            searchNodes++;
+            int base = (2 * size + block) * size;
+            int blockMask = 0;
+            for (int i = 0; i < size; i++) {
+                blockMask |= work[unitCells[base + i]];
+            }
+            for (int rest = blockMask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                int row = -1;
+                int col = -1;
+                for (int i = 0; i < size; i++) {
+                    int index = unitCells[base + i];
+                    if ((work[index] & bit) != 0) {
+                        row = row == -1 || row == geometry.rowOf(index) ? geometry.rowOf(index) : -2;
+                        col = col == -1 || col == geometry.colOf(index) ? geometry.colOf(index) : -2;
+                    }
+                }
+                if (row >= 0) {
+                    changed |= eliminate(row * size, block, bit, true);
+                }
+                if (col >= 0) {
+                    changed |= eliminate((size + col) * size, block, bit, true);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes digits whose candidates inside a row or column lie in a single block from the rest
+     * of that block.
+     *
+     * @return true if any candidate was removed.
+     */
+    private boolean claiming() {
+        boolean changed = false;
+        for (int line = 0; line < 2 * size; line++) {
+            searchNodes++;
+            int base = line * size;
+            int lineMask = 0;
+            for (int i = 0; i < size; i++) {
+                lineMask |= work[unitCells[base + i]];
+            }
+            for (int rest = lineMask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                int block = -1;
+                for (int i = 0; i < size && block != -2; i++) {
+                    int index = unitCells[base + i];
+                    if ((work[index] & bit) != 0) {
+                        int cellBlock = geometry.blockOf(index);
+                        block = block == -1 || block == cellBlock ? cellBlock : -2;
+                    }
+                }
+                if (block >= 0) {
+                    changed |= eliminate((2 * size + block) * size, line, bit, false);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Clears a candidate bit from the cells of a unit that lie outside another unit.
+     *
+     * @param base    the offset of the unit to clear in {@link #unitCells}.
+     * @param keep    the block (when {@code keepBlock}) or line to leave untouched.
+     * @param bit     the candidate bit to clear.
+     * @param keepBlock true if {@code keep} is a block, false if it is a line unit.
+     * @return true if any candidate was removed.
+     */
+    private boolean eliminate(int base, int keep, int bit, boolean keepBlock) {
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int index = unitCells[base + i];
+            boolean inside = keepBlock
+                    ? geometry.blockOf(index) == keep
+                    : (keep < size ? geometry.rowOf(index) == keep : geometry.colOf(index) == keep - size);
+            if (!inside && (work[index] & bit) != 0) {
+                work[index] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void refresh(int index) {
+        int row = geometry.rowOf(index);
+        int col = geometry.colOf(index);
+        candidates[index] = board.get(row, col) == 0 ? board.candidates(row, col) : 0;
+    }
+
+    private Hint hint(int index, int bit, Technique technique) {
+        return new Hint(geometry.rowOf(index), geometry.colOf(index),
+                Integer.numberOfTrailingZeros(bit) + 1, technique);
+    }
+
+    private static Technique max(Technique a, Technique b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
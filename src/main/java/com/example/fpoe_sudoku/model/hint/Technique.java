@@ -0,0 +1,36 @@
+package com.example.fpoe_sudoku.model.hint;
+
+/**
+ * Solving techniques that can justify a hint, ordered from the simplest to the hardest.
+ */
+public enum Technique {
+    /** The cell has a single candidate left. */
+    NAKED_SINGLE("Único candidato"),
+    /** The digit fits in only one cell of a row, column or block. */
+    HIDDEN_SINGLE("Único lugar"),
+    /** The digit's candidates in a block lie on one row or column, removing it from the rest of that line. */
+    POINTING("Par/trío apuntador"),
+    /** The digit's candidates in a row or column lie in one block, removing it from the rest of that block. */
+    CLAIMING("Reducción de línea"),
+    /** N cells of a unit share exactly N candidates, removing them from the rest of the unit. */
+    NAKED_SUBSET("Subconjunto desnudo"),
+    /** N digits of a unit fit only in the same N cells, removing other candidates from those cells. */
+    HIDDEN_SUBSET("Subconjunto oculto"),
+    /** A digit fits in the same two columns of two rows (or rows of two columns), removing it elsewhere in them. */
+    X_WING("X-Wing"),
+    /** No technique applies; the digit is taken from the stored solution. */
+    SOLUTION("Solución");
+
+    private final String displayName;
+
+    Technique(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * @return the name shown to the player.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
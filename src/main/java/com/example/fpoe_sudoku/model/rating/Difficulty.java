@@ -0,0 +1,50 @@
+package com.example.fpoe_sudoku.model.rating;
+
+/**
+ * Difficulty levels assigned by the {@link DifficultyRater}, from the easiest to the hardest.
+ */
+public enum Difficulty {
+    /** Solved with naked singles only. */
+    EASY("Fácil"),
+    /** Needs hidden singles. */
+    MEDIUM("Medio"),
+    /** Needs locked candidates or naked/hidden subsets. */
+    HARD("Difícil"),
+    /** Needs an X-Wing. */
+    EXPERT("Experto"),
+    /** Cannot be solved by the rater's techniques; needs guessing. */
+    EXTREME("Extremo");
+
+    private final String displayName;
+
+    Difficulty(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * @return the name shown to the player.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the code stored in puzzle banks (0 is reserved for unrated puzzles).
+     *
+     * @return a code from 1 to the number of levels.
+     */
+    public int getCode() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * Returns the level stored under a puzzle bank code.
+     *
+     * @param code the stored code.
+     * @return the level, or null if the code is 0 (unrated) or unknown.
+     */
+    public static Difficulty fromCode(int code) {
+        Difficulty[] levels = values();
+        return code >= 1 && code <= levels.length ? levels[code - 1] : null;
+    }
+}
@@ -0,0 +1,518 @@
+package com.example.fpoe_sudoku.model.rating;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.hint.Technique;
+
+import java.util.EnumSet;
+
+/**
+ * Rates puzzles by solving them the way a person would.
+ * <p>
+ * The rater keeps a candidate bitmask per cell and repeatedly applies the simplest technique that
+ * makes progress: naked singles, hidden singles, pointing, claiming, naked subsets, hidden subsets
+ * (pairs to quads) and X-Wings. Every step adds the technique's weight to the score, and the
+ * hardest technique needed decides the {@link Difficulty}. A puzzle the techniques cannot finish
+ * is rated {@link Difficulty#EXTREME}.
+ * <p>
+ * All working arrays are allocated once per rater, so a rater is cheap to reuse but is not
+ * thread-safe; batch tools use one rater per worker thread.
+ */
+public class DifficultyRater {
+    // Largest subset size searched by the naked and hidden subset techniques.
+    private static final int MAX_SUBSET = 4;
+
+    // Score added when the techniques get stuck.
+    private static final int STUCK_PENALTY = 1000;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+
+    // Cells of every unit: rows first, then columns, then blocks, size cells each.
+    private final int[] unitCells;
+
+    // Working state of the current puzzle.
+    private final int[] cells;
+    private final int[] candidates;
+    private int empty;
+
+    // Scratch arrays for the subset search, indexed by depth or unit position.
+    private final int[] subsetItems;
+    private final int[] subsetMasks;
+    private final int[] positions;
+
+    // Steps and weighted score of the current puzzle.
+    private int steps;
+    private int score;
+    private final EnumSet<Technique> used = EnumSet.noneOf(Technique.class);
+
+    /**
+     * Creates a rater for puzzles of one shape.
+     *
+     * @param geometry the shape of the puzzles.
+     */
+    public DifficultyRater(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.cells = new int[cellCount];
+        this.candidates = new int[cellCount];
+        this.subsetItems = new int[size];
+        this.subsetMasks = new int[size];
+        this.positions = new int[size];
+
+        unitCells = new int[3 * size * size];
+        int[] blockFill = new int[size];
+        for (int index = 0; index < cellCount; index++) {
+            int row = geometry.rowOf(index);
+            int col = geometry.colOf(index);
+            int block = geometry.blockOf(index);
+            unitCells[row * size + col] = index;
+            unitCells[(size + col) * size + row] = index;
+            unitCells[(2 * size + block) * size + blockFill[block]++] = index;
+        }
+    }
+
+    /**
+     * @return the shape of the puzzles this rater accepts.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Rates a puzzle.
+     *
+     * @param puzzle the clues in row-major order (0 = empty).
+     * @return the rating.
+     */
+    public Rating rate(int[] puzzle) {
+        load(puzzle);
+        boolean solved = solve();
+        Difficulty difficulty = solved ? difficultyOf(used) : Difficulty.EXTREME;
+        return new Rating(difficulty, solved ? score : score + STUCK_PENALTY, steps, used);
+    }
+
+    /**
+     * Returns the weight one step of a technique adds to the score.
+     *
+     * @param technique the technique.
+     * @return its weight.
+     */
+    public static int weightOf(Technique technique) {
+        return switch (technique) {
+            case NAKED_SINGLE -> 1;
+            case HIDDEN_SINGLE -> 2;
+            case POINTING, CLAIMING -> 5;
+            case NAKED_SUBSET -> 10;
+            case HIDDEN_SUBSET -> 15;
+            case X_WING -> 25;
+            case SOLUTION -> STUCK_PENALTY;
+        };
+    }
+
+    private static Difficulty difficultyOf(EnumSet<Technique> techniques) {
+        if (techniques.contains(Technique.X_WING)) {
+            return Difficulty.EXPERT;
+        }
+        if (techniques.contains(Technique.POINTING) || techniques.contains(Technique.CLAIMING)
+                || techniques.contains(Technique.NAKED_SUBSET) || techniques.contains(Technique.HIDDEN_SUBSET)) {
+            return Difficulty.HARD;
+        }
+        if (techniques.contains(Technique.HIDDEN_SINGLE)) {
+            return Difficulty.MEDIUM;
+        }
+        return Difficulty.EASY;
+    }
+
+    private void load(int[] puzzle) {
+        steps = 0;
+        score = 0;
+        used.clear();
+        empty = cellCount;
+        int digits = geometry.getDigitMask();
+        for (int index = 0; index < cellCount; index++) {
+            cells[index] = 0;
+            candidates[index] = digits;
+        }
+        for (int index = 0; index < cellCount; index++) {
+            if (puzzle[index] != 0) {
+                place(index, puzzle[index]);
+            }
+        }
+    }
+
+    /**
+     * Applies the techniques until the puzzle is solved or none makes progress.
+     *
+     * @return true if every cell was filled.
+     */
+    private boolean solve() {
+        while (empty > 0) {
+            int found = nakedSingles();
+            if (found < 0) {
+                return false; // A cell has no candidates left
+            }
+            if (found > 0
+                    || hiddenSingle()
+                    || pointing()
+                    || claiming()
+                    || nakedSubset()
+                    || hiddenSubset()
+                    || xWing()) {
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void record(Technique technique) {
+        steps++;
+        score += weightOf(technique);
+        used.add(technique);
+    }
+
+    private void place(int index, int digit) {
+        int bit = 1 << (digit - 1);
+        cells[index] = digit;
+        candidates[index] = 0;
+        empty--;
+        int row = geometry.rowOf(index);
+        int col = geometry.colOf(index);
+        int block = geometry.blockOf(index);
+        for (int i = 0; i < size; i++) {
+            candidates[unitCells[row * size + i]] &= ~bit;
+            candidates[unitCells[(size + col) * size + i]] &= ~bit;
+            candidates[unitCells[(2 * size + block) * size + i]] &= ~bit;
+        }
+    }
+
+    /**
+     * Places every naked single found in one sweep.
+     *
+     * @return the number of placements, or -1 if an empty cell has no candidates.
+     */
+    private int nakedSingles() {
+        int found = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (cells[index] != 0) {
+                continue;
+            }
+            int mask = candidates[index];
+            if (mask == 0) {
+                return -1;
+            }
+            if ((mask & (mask - 1)) == 0) {
+                place(index, Integer.numberOfTrailingZeros(mask) + 1);
+                record(Technique.NAKED_SINGLE);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private boolean hiddenSingle() {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int base = unit * size;
+            int once = 0;
+            int twice = 0;
+            for (int i = 0; i < size; i++) {
+                int mask = candidates[unitCells[base + i]];
+                twice |= once & mask;
+                once |= mask;
+            }
+            int single = once & ~twice;
+            if (single != 0) {
+                int bit = Integer.lowestOneBit(single);
+                for (int i = 0; i < size; i++) {
+                    int index = unitCells[base + i];
+                    if ((candidates[index] & bit) != 0) {
+                        place(index, Integer.numberOfTrailingZeros(bit) + 1);
+                        record(Technique.HIDDEN_SINGLE);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean pointing() {
+        for (int block = 0; block < size; block++) {
+            int base = (2 * size + block) * size;
+            int blockMask = 0;
+            for (int i = 0; i < size; i++) {
+                blockMask |= candidates[unitCells[base + i]];
+            }
+            for (int rest = blockMask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                int row = -1;
+                int col = -1;
+                for (int i = 0; i < size; i++) {
+                    int index = unitCells[base + i];
+                    if ((candidates[index] & bit) != 0) {
+                        row = row == -1 || row == geometry.rowOf(index) ? geometry.rowOf(index) : -2;
+                        col = col == -1 || col == geometry.colOf(index) ? geometry.colOf(index) : -2;
+                    }
+                }
+                boolean changed = row >= 0 && eliminateOutsideBlock(row * size, block, bit);
+                changed |= col >= 0 && eliminateOutsideBlock((size + col) * size, block, bit);
+                if (changed) {
+                    record(Technique.POINTING);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean claiming() {
+        for (int line = 0; line < 2 * size; line++) {
+            int base = line * size;
+            int lineMask = 0;
+            for (int i = 0; i < size; i++) {
+                lineMask |= candidates[unitCells[base + i]];
+            }
+            for (int rest = lineMask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                int block = -1;
+                for (int i = 0; i < size && block != -2; i++) {
+                    int index = unitCells[base + i];
+                    if ((candidates[index] & bit) != 0) {
+                        int cellBlock = geometry.blockOf(index);
+                        block = block == -1 || block == cellBlock ? cellBlock : -2;
+                    }
+                }
+                if (block >= 0 && eliminateOutsideLine((2 * size + block) * size, line, bit)) {
+                    record(Technique.CLAIMING);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean eliminateOutsideBlock(int base, int block, int bit) {
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int index = unitCells[base + i];
+            if (geometry.blockOf(index) != block && (candidates[index] & bit) != 0) {
+                candidates[index] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean eliminateOutsideLine(int base, int line, int bit) {
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int index = unitCells[base + i];
+            boolean inLine = line < size ? geometry.rowOf(index) == line : geometry.colOf(index) == line - size;
+            if (!inLine && (candidates[index] & bit) != 0) {
+                candidates[index] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Looks for N cells of a unit whose candidates together are exactly N digits, and removes
+     * those digits from the other cells of the unit.
+     */
+    private boolean nakedSubset() {
+        for (int k = 2; k <= MAX_SUBSET; k++) {
+            for (int unit = 0; unit < 3 * size; unit++) {
+                int base = unit * size;
+                int count = 0;
+                int open = 0;
+                for (int i = 0; i < size; i++) {
+                    int mask = candidates[unitCells[base + i]];
+                    if (mask != 0) {
+                        open++;
+                        if (Integer.bitCount(mask) <= k) {
+                            subsetMasks[count] = mask;
+                            positions[count++] = i;
+                        }
+                    }
+                }
+                if (open > k && count >= k && findSubset(base, false, count, k, 0, 0, 0)) {
+                    record(Technique.NAKED_SUBSET);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the digits of a naked subset from the other cells of its unit.
+     *
+     * @param base   the first entry of the unit in {@link #unitCells}.
+     * @param k      the subset size; {@link #subsetItems} holds the chosen cells.
+     * @param digits the union of the candidates of the chosen cells.
+     * @return true if a candidate was removed.
+     */
+    private boolean applyNakedSubset(int base, int k, int digits) {
+        int keep = 0;
+        for (int j = 0; j < k; j++) {
+            keep |= 1 << positions[subsetItems[j]];
+        }
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int index = unitCells[base + i];
+            if ((keep & (1 << i)) == 0 && (candidates[index] & digits) != 0) {
+                candidates[index] &= ~digits;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Looks for N digits of a unit that fit only in the same N cells, and removes every other
+     * candidate from those cells.
+     */
+    private boolean hiddenSubset() {
+        for (int k = 2; k <= MAX_SUBSET; k++) {
+            for (int unit = 0; unit < 3 * size; unit++) {
+                int base = unit * size;
+                int count = 0;
+                int open = 0;
+                for (int digit = 0; digit < size; digit++) {
+                    int bit = 1 << digit;
+                    int where = 0;
+                    for (int i = 0; i < size; i++) {
+                        if ((candidates[unitCells[base + i]] & bit) != 0) {
+                            where |= 1 << i;
+                        }
+                    }
+                    if (where != 0) {
+                        open++;
+                        if (Integer.bitCount(where) <= k) {
+                            subsetMasks[count] = where;
+                            positions[count++] = digit;
+                        }
+                    }
+                }
+                if (open > k && count >= k && findSubset(base, true, count, k, 0, 0, 0)) {
+                    record(Technique.HIDDEN_SUBSET);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every other candidate from the cells of a hidden subset.
+     *
+     * @param base  the first entry of the unit in {@link #unitCells}.
+     * @param k     the subset size; {@link #subsetItems} holds the chosen digits.
+     * @param where the positions in the unit of the cells that hold the chosen digits.
+     * @return true if a candidate was removed.
+     */
+    private boolean applyHiddenSubset(int base, int k, int where) {
+        int keep = 0;
+        for (int j = 0; j < k; j++) {
+            keep |= 1 << positions[subsetItems[j]];
+        }
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int index = unitCells[base + i];
+            if ((where & (1 << i)) != 0 && (candidates[index] & ~keep) != 0) {
+                candidates[index] &= keep;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Searches {@link #subsetMasks}[0, count) for k entries whose union has exactly k bits and
+     * applies the first such subset that removes a candidate. A subset that was already applied
+     * removes nothing, so the search goes on to the next combination instead of stopping there.
+     * The chosen entries are left in {@link #subsetItems}.
+     *
+     * @param base   the first entry of the unit in {@link #unitCells}.
+     * @param hidden true for a hidden subset (the masks are cell positions), false for a naked
+     *               one (the masks are digits).
+     * @return true if a subset removed a candidate.
+     */
+    private boolean findSubset(int base, boolean hidden, int count, int k, int depth, int from, int union) {
+        if (depth == k) {
+            if (Integer.bitCount(union) != k) {
+                return false;
+            }
+            return hidden ? applyHiddenSubset(base, k, union) : applyNakedSubset(base, k, union);
+        }
+        for (int i = from; i <= count - (k - depth); i++) {
+            int next = union | subsetMasks[i];
+            if (Integer.bitCount(next) > k) {
+                continue;
+            }
+            subsetItems[depth] = i;
+            if (findSubset(base, hidden, count, k, depth + 1, i + 1, next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for a digit that fits in the same two columns of two rows (or the same two rows of two
+     * columns) and removes it from the rest of those columns (or rows).
+     */
+    private boolean xWing() {
+        for (int digit = 0; digit < size; digit++) {
+            int bit = 1 << digit;
+            for (int direction = 0; direction < 2; direction++) {
+                int lines = direction * size;
+                int crosses = (1 - direction) * size;
+                for (int line = 0; line < size; line++) {
+                    positions[line] = linePositions(lines + line, bit);
+                }
+                for (int first = 0; first < size; first++) {
+                    int where = positions[first];
+                    if (Integer.bitCount(where) != 2) {
+                        continue;
+                    }
+                    for (int second = first + 1; second < size; second++) {
+                        if (positions[second] != where) {
+                            continue;
+                        }
+                        boolean changed = false;
+                        for (int rest = where; rest != 0; rest &= rest - 1) {
+                            int base = (crosses + Integer.numberOfTrailingZeros(rest)) * size;
+                            for (int i = 0; i < size; i++) {
+                                int index = unitCells[base + i];
+                                if (i != first && i != second && (candidates[index] & bit) != 0) {
+                                    candidates[index] &= ~bit;
+                                    changed = true;
+                                }
+                            }
+                        }
+                        if (changed) {
+                            record(Technique.X_WING);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int linePositions(int unit, int bit) {
+        int base = unit * size;
+        int where = 0;
+        for (int i = 0; i < size; i++) {
+            if ((candidates[unitCells[base + i]] & bit) != 0) {
+                where |= 1 << i;
+            }
+        }
+        return where;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.fpoe_sudoku.model.rating;
+
+import com.example.fpoe_sudoku.model.hint.Technique;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Result of rating a puzzle: its level, a numeric score and the techniques that were needed.
+ * Instances are immutable.
+ */
+public final class Rating {
+    private final Difficulty difficulty;
+    private final int score;
+    private final int steps;
+    private final Set<Technique> techniques;
+
+    /**
+     * Creates a rating.
+     *
+     * @param difficulty the level of the puzzle.
+     * @param score      the weighted sum of all solving steps.
+     * @param steps      the number of solving steps.
+     * @param techniques the techniques that made progress at least once.
+     */
+    public Rating(Difficulty difficulty, int score, int steps, Set<Technique> techniques) {
+        this.difficulty = difficulty;
+        this.score = score;
+        this.steps = steps;
+        this.techniques = Collections.unmodifiableSet(techniques.isEmpty()
+                ? EnumSet.noneOf(Technique.class) : EnumSet.copyOf(techniques));
+    }
+
+    /**
+     * @return the level of the puzzle.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return the weighted sum of all solving steps; higher is harder.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of solving steps (placements and eliminations).
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return the techniques that made progress at least once.
+     */
+    public Set<Technique> getTechniques() {
+        return techniques;
+    }
+
+    /**
+     * @return true if the puzzle was solved without guessing.
+     */
+    public boolean isSolvedLogically() {
+        return difficulty != Difficulty.EXTREME;
+    }
+
+    @Override
+    public String toString() {
+        return difficulty + " (score " + score + ", " + steps + " steps, " + techniques + ")";
+    }
+}
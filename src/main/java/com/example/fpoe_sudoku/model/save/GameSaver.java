@@ -0,0 +1,415 @@
+package com.example.fpoe_sudoku.model.save;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.game.MoveJournal;
+import com.example.fpoe_sudoku.utils.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Saves a game in progress so it survives closing the window or a crash.
+ * <p>
+ * The state is kept in two files of a directory: a snapshot of the whole game and an append-only
+ * log of the moves made after it. Moves are handed over with {@link #moveMade(long)}, which only
+ * copies them into a buffer; a background thread appends them to the log and syncs it to disk at
+ * most every {@link #FLUSH_INTERVAL_MILLIS} milliseconds, so the JavaFX thread never waits for the
+ * disk and a crash loses at most that much play. Once the log holds {@link #COMPACT_AFTER} moves,
+ * the thread writes a new snapshot from its own copy of the board and starts an empty log, so
+ * {@link #load(Path)} reads at most one snapshot and that many moves however long the game lasts.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ * game.snap: magic "SDKS", version (short), block rows (byte), block columns (byte),
+ *            generation (long), time played in ms (long), clues, solution and current values
+ *            (one byte per cell each), CRC-32 of everything before it (int)
+ * game.log:  magic "SDKL", version (short), 2 reserved bytes, generation (long), then one
+ *            16-byte record per move: the {@link MoveJournal} move with the time played in place
+ *            of its time (long), and the move's bits inverted and xored with the generation (long)
+ * </pre>
+ * A snapshot is written to a temporary file and renamed over the old one, and the log is only
+ * reset afterwards, so a crash at any point leaves a valid snapshot. A log whose generation is not
+ * the snapshot's predates it and is ignored, and so is a torn or zeroed record at its end.
+ * When the game is solved, both files are deleted.
+ * <p>
+ * If the files cannot be written, the writer thread logs the error and stops, and from then on
+ * {@link #moveMade(long)} drops the moves and {@link #isFailed()} returns true.
+ */
+public class GameSaver {
+    /** Longest time between writing a move and syncing it to disk. */
+    public static final long FLUSH_INTERVAL_MILLIS = 200;
+    /** Number of logged moves after which a new snapshot is written. */
+    public static final int COMPACT_AFTER = 512;
+    /** Longest time {@link #close()} waits for the writer thread to finish. */
+    public static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    static final int SNAPSHOT_MAGIC = 0x534B4453; // "SDKS" in little-endian order
+    static final int LOG_MAGIC = 0x4C4B4453; // "SDKL" in little-endian order
+    static final short VERSION = 1;
+    static final int SNAPSHOT_HEADER_BYTES = 24;
+    static final int LOG_HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    private static final String SNAPSHOT_FILE = "game.snap";
+    private static final String LOG_FILE = "game.log";
+
+    private final Path snapshotPath;
+    private final Path logPath;
+    private final BoardGeometry geometry;
+    private final int[] puzzle;
+    private final int[] solution;
+    private final long baseElapsedMillis;
+    private final long sessionStartMillis;
+    private final SplittableRandom generations = new SplittableRandom();
+    private final Thread writer;
+
+    // Moves handed over by the game and not written yet, guarded by this
+    private long[] pending = new long[64];
+    private int pendingCount;
+    private boolean closing;
+    private boolean failed;
+
+    // Writer thread state: its copy of the board and the open log
+    private final BitBoard shadow;
+    private long[] batch = new long[64];
+    private ByteBuffer records = ByteBuffer.allocateDirect(64 * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel log;
+    private long generation;
+    private int logged;
+    private long lastElapsedMillis;
+
+    /**
+     * Starts saving a game: the current state is written as a new snapshot and every later move
+     * goes to the log.
+     *
+     * @param directory the directory of the save files; it is created if needed.
+     * @param start     the state of the game when saving starts.
+     */
+    public GameSaver(Path directory, SavedGame start) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.logPath = directory.resolve(LOG_FILE);
+        this.geometry = start.getGeometry();
+        this.puzzle = start.getPuzzle();
+        this.solution = start.getSolution();
+        this.baseElapsedMillis = start.getElapsedMillis();
+        this.sessionStartMillis = System.currentTimeMillis();
+        this.shadow = new BitBoard(geometry);
+        shadow.load(start.getCells());
+        this.lastElapsedMillis = baseElapsedMillis;
+
+        this.writer = new Thread(() -> run(directory), "game-saver");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return the default save directory, {@code .fpoe-sudoku} in the user's home.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".fpoe-sudoku");
+    }
+
+    /**
+     * Loads the saved game of a directory: its snapshot with the logged moves replayed.
+     *
+     * @param directory the directory of the save files.
+     * @return the saved game, or null if there is none, it cannot be read or it is already solved.
+     */
+    public static SavedGame load(Path directory) {
+        try {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(SNAPSHOT_FILE)))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (snapshot.remaining() < SNAPSHOT_HEADER_BYTES + Integer.BYTES
+                    || snapshot.getInt() != SNAPSHOT_MAGIC || snapshot.getShort() != VERSION) {
+                return null;
+            }
+            BoardGeometry geometry = BoardGeometry.of(snapshot.get(), snapshot.get());
+            long generation = snapshot.getLong();
+            long elapsed = snapshot.getLong();
+            int cellCount = geometry.getCellCount();
+            int length = SNAPSHOT_HEADER_BYTES + 3 * cellCount;
+            if (snapshot.limit() != length + Integer.BYTES || snapshot.getInt(length) != crcOf(snapshot, length)) {
+                return null;
+            }
+            int[] puzzle = readCells(snapshot, cellCount);
+            int[] solution = readCells(snapshot, cellCount);
+            BitBoard cells = new BitBoard(geometry);
+            cells.load(readCells(snapshot, cellCount));
+
+            elapsed = Math.max(elapsed, replayLog(directory.resolve(LOG_FILE), generation, cells));
+            if (cells.isSolved()) {
+                return null;
+            }
+            int[] current = new int[cellCount];
+            cells.copyTo(current);
+            return new SavedGame(geometry, puzzle, solution, current, elapsed);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            Log.warn("No se pudo cargar la partida guardada: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hands a move over to the writer thread. Never blocks on the disk. The move is dropped if
+     * saving has stopped.
+     *
+     * @param move the move, packed by {@link MoveJournal#pack(long, int, int, int)} with the time
+     *             since the start of this saving session.
+     */
+    public synchronized void moveMade(long move) {
+        if (closing || failed) {
+            return;
+        }
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingCount++] = move;
+        notifyAll();
+    }
+
+    /**
+     * @return true if the save files could not be written and saving has stopped.
+     */
+    public synchronized boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Stops saving. The writer thread writes the moves it still holds and a final snapshot, then
+     * ends; this method waits for it at most {@link #CLOSE_TIMEOUT_MILLIS} milliseconds.
+     */
+    public void close() {
+        synchronized (this) {
+            closing = true;
+            notifyAll();
+        }
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the writer thread.
+     */
+    private void run(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            writeSnapshot();
+            boolean stop = false;
+            while (!stop) {
+                int count;
+                synchronized (this) {
+                    while (pendingCount == 0 && !closing) {
+                        wait();
+                    }
+                    long[] swap = batch;
+                    batch = pending;
+                    pending = swap;
+                    count = pendingCount;
+                    pendingCount = 0;
+                    stop = closing;
+                }
+
+                writeMoves(count);
+                if (shadow.isSolved()) {
+                    deleteFiles();
+                    return;
+                }
+                if (stop || logged >= COMPACT_AFTER) {
+                    writeSnapshot();
+                }
+                if (!stop) {
+                    // Gather the moves of the next interval into one write and one sync; every
+                    // move notifies, so wait again until the interval is over or saving stops
+                    long deadline = System.nanoTime() + FLUSH_INTERVAL_MILLIS * 1_000_000;
+                    synchronized (this) {
+                        long left;
+                        while (!closing && (left = (deadline - System.nanoTime()) / 1_000_000) > 0) {
+                            wait(left);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.error("No se pudo guardar la partida: %s", e.getMessage());
+            synchronized (this) {
+                // Nothing consumes the moves any more
+                failed = true;
+                pendingCount = 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeLog();
+        }
+    }
+
+    /**
+     * Applies a batch of moves to the shadow board, appends them to the log and syncs it.
+     */
+    private void writeMoves(int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        if (records.capacity() < count * RECORD_BYTES) {
+            records = ByteBuffer.allocateDirect(count * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        records.clear();
+        int size = geometry.getSize();
+        for (int i = 0; i < count; i++) {
+            long move = batch[i];
+            int cell = MoveJournal.cellOf(move);
+            int value = MoveJournal.newValueOf(move);
+            shadow.place(cell / size, cell % size, value);
+            lastElapsedMillis = baseElapsedMillis + MoveJournal.elapsedMillisOf(move);
+            long record = MoveJournal.pack(lastElapsedMillis, cell, MoveJournal.oldValueOf(move), value);
+            records.putLong(record);
+            records.putLong(~record ^ generation);
+        }
+        records.flip();
+        while (records.hasRemaining()) {
+            log.write(records);
+        }
+        log.force(false);
+        logged += count;
+    }
+
+    /**
+     * Writes a snapshot of the shadow board with a new generation, then starts an empty log.
+     */
+    private void writeSnapshot() throws IOException {
+        generation = generations.nextLong();
+        int cellCount = geometry.getCellCount();
+        int length = SNAPSHOT_HEADER_BYTES + 3 * cellCount;
+        ByteBuffer snapshot = ByteBuffer.allocate(length + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        snapshot.putInt(SNAPSHOT_MAGIC);
+        snapshot.putShort(VERSION);
+        snapshot.put((byte) geometry.getBlockRows());
+        snapshot.put((byte) geometry.getBlockCols());
+        snapshot.putLong(generation);
+        snapshot.putLong(Math.max(lastElapsedMillis,
+                baseElapsedMillis + System.currentTimeMillis() - sessionStartMillis));
+        for (int value : puzzle) {
+            snapshot.put((byte) value);
+        }
+        for (int value : solution) {
+            snapshot.put((byte) value);
+        }
+        int size = geometry.getSize();
+        for (int cell = 0; cell < cellCount; cell++) {
+            snapshot.put((byte) shadow.get(cell / size, cell % size));
+        }
+        snapshot.putInt(crcOf(snapshot, length));
+        snapshot.flip();
+
+        Path temporary = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // The old log predates the snapshot; start a new one for its generation
+        closeLog();
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOG_MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putLong(generation);
+        header.flip();
+        while (header.hasRemaining()) {
+            log.write(header);
+        }
+        log.force(false);
+        logged = 0;
+    }
+
+    private void deleteFiles() throws IOException {
+        closeLog();
+        Files.deleteIfExists(snapshotPath);
+        Files.deleteIfExists(logPath);
+    }
+
+    private void closeLog() {
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                Log.warn("No se pudo cerrar el registro de jugadas: %s", e.getMessage());
+            }
+            log = null;
+        }
+    }
+
+    /**
+     * Applies the valid records of a log to a board.
+     *
+     * @return the time played at the last record, or 0 if the log has none.
+     */
+    private static long replayLog(Path path, long generation, BitBoard cells) throws IOException {
+        ByteBuffer log;
+        try {
+            log = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        if (log.remaining() < LOG_HEADER_BYTES || log.getInt() != LOG_MAGIC || log.getShort() != VERSION) {
+            return 0;
+        }
+        log.getShort();
+        if (log.getLong() != generation) {
+            return 0;
+        }
+        int size = cells.size();
+        long elapsed = 0;
+        while (log.remaining() >= RECORD_BYTES) {
+            long record = log.getLong();
+            if (log.getLong() != (~record ^ generation)) {
+                break; // Torn write at the end of the log
+            }
+            int cell = MoveJournal.cellOf(record);
+            int value = MoveJournal.newValueOf(record);
+            if (cell >= size * size || value > size) {
+                break;
+            }
+            cells.place(cell / size, cell % size, value);
+            elapsed = MoveJournal.elapsedMillisOf(record);
+        }
+        return elapsed;
+    }
+
+    private static int[] readCells(ByteBuffer buffer, int count) {
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = buffer.get();
+        }
+        return cells;
+    }
+
+    private static int crcOf(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset(), length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.fpoe_sudoku.model.save;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+/**
+ * Immutable state of a game in progress: the puzzle, its solution, the values the player has
+ * entered so far and the time played.
+ */
+public class SavedGame {
+    private final BoardGeometry geometry;
+    private final int[] puzzle;
+    private final int[] solution;
+    private final int[] cells;
+    private final long elapsedMillis;
+
+    /**
+     * Creates a saved game.
+     *
+     * @param geometry      the shape of the board.
+     * @param puzzle        the clues in row-major order (0 = empty).
+     * @param solution      the solution in row-major order.
+     * @param cells         the current values in row-major order, clues included (0 = empty).
+     * @param elapsedMillis the time played, in milliseconds.
+     */
+    public SavedGame(BoardGeometry geometry, int[] puzzle, int[] solution, int[] cells, long elapsedMillis) {
+        this.geometry = geometry;
+        this.puzzle = puzzle.clone();
+        this.solution = solution.clone();
+        this.cells = cells.clone();
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Creates the saved state of a game that has just started on a board.
+     *
+     * @param board the puzzle being played.
+     * @return the saved game, with no value entered and no time played.
+     */
+    public static SavedGame start(Board board) {
+        int[] puzzle = board.toArray();
+        return new SavedGame(board.getGeometry(), puzzle, board.solutionToArray(), puzzle, 0);
+    }
+
+    /**
+     * @return the shape of the board.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return a copy of the clues in row-major order.
+     */
+    public int[] getPuzzle() {
+        return puzzle.clone();
+    }
+
+    /**
+     * @return a copy of the solution in row-major order.
+     */
+    public int[] getSolution() {
+        return solution.clone();
+    }
+
+    /**
+     * @return a copy of the current values in row-major order, clues included.
+     */
+    public int[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * @return the time played, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return a board holding the puzzle and its solution.
+     */
+    public Board toBoard() {
+        return new Board(geometry, puzzle, solution);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.fpoe_sudoku.model.solver;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Exact-cover Sudoku solver using Knuth's Algorithm X with Dancing Links.
+ * <p>
+ * The exact-cover matrix is built once from the {@link BoardGeometry}: it has one column per
+ * constraint (every cell filled, every digit once per row, column and block) and one row of four
+ * nodes per candidate (cell, digit). The links live in preallocated {@code int[]} arrays, and
+ * every search uncovers exactly what it covered, so the matrix returns to its initial state after
+ * each call. Solving, counting and uniqueness checks therefore allocate nothing once the solver
+ * has been created.
+ * <p>
+ * Instances are not thread-safe; {@link #local(BoardGeometry)} hands out one per thread.
+ */
+public class DancingLinksSolver implements ISolver {
+    // How many search steps run between two clock reads.
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    private static final ThreadLocal<Map<BoardGeometry, DancingLinksSolver>> LOCAL =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int columns;
+    // Index of the first candidate node (the root and column headers come before it).
+    private final int firstNode;
+
+    // Circular doubly linked lists: left, right, up, down, and the column header of each node.
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    // Number of nodes currently linked in each column, and whether each column is covered.
+    private final int[] columnSize;
+    private final boolean[] covered;
+
+    // Candidate rows chosen for the givens and by the search, used as two stacks.
+    private final int[] givenRows;
+    private final int[] searchRows;
+
+    // State of the current search.
+    private int limit;
+    private int found;
+    private long deadline;
+    private boolean timedOut;
+    private int steps;
+    private int[] output;
+    private BooleanSupplier cancelled;
+
+    /**
+     * Builds the exact-cover matrix for a geometry.
+     *
+     * @param geometry the shape of the boards to solve.
+     */
+    public DancingLinksSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        int cells = geometry.getCellCount();
+        this.columns = 4 * cells;
+        this.firstNode = columns + 1;
+        int nodes = firstNode + 4 * cells * size;
+
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        columnSize = new int[columns + 1];
+        covered = new boolean[columns + 1];
+        givenRows = new int[cells];
+        searchRows = new int[cells];
+
+        // Root (0) and column headers (1..columns) in one horizontal ring
+        for (int header = 0; header <= columns; header++) {
+            left[header] = header == 0 ? columns : header - 1;
+            right[header] = header == columns ? 0 : header + 1;
+            up[header] = header;
+            down[header] = header;
+            column[header] = header;
+        }
+
+        // One row of four nodes per candidate (cell, digit)
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            int block = geometry.blockOf(cell);
+            for (int digit = 0; digit < size; digit++) {
+                int node = nodeOf(cell, digit);
+                link(node, 1 + cell);
+                link(node + 1, 1 + cells + row * size + digit);
+                link(node + 2, 1 + 2 * cells + col * size + digit);
+                link(node + 3, 1 + 3 * cells + block * size + digit);
+                for (int k = 0; k < 4; k++) {
+                    left[node + k] = node + (k + 3) % 4;
+                    right[node + k] = node + (k + 1) % 4;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the solver owned by the calling thread for a geometry, creating it on first use.
+     *
+     * @param geometry the shape of the boards to solve.
+     * @return a solver that only the calling thread uses.
+     */
+    public static DancingLinksSolver local(BoardGeometry geometry) {
+        return LOCAL.get().computeIfAbsent(geometry, DancingLinksSolver::new);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(int[] cells) {
+        return run(cells, 1, Long.MAX_VALUE, cells, null) == 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(int[] cells, int limit, long deadline) {
+        return run(cells, limit, deadline, null, null);
+    }
+
+    /**
+     * Counts the solutions of a puzzle up to a limit and keeps the first one, giving up at a
+     * deadline. Unlike {@link #countSolutions(int[], int, long)}, a search cut short by the
+     * deadline is reported as such.
+     *
+     * @param cells    the puzzle; it is left unchanged.
+     * @param limit    the number of solutions after which the search stops.
+     * @param deadline the {@link System#nanoTime()} value at which the search is abandoned.
+     * @param solution receives the first solution; it must hold a copy of the puzzle, whose
+     *                 empty cells are filled in.
+     * @return the number of solutions found, or -1 if the deadline passed first.
+     */
+    public int countAndSolve(int[] cells, int limit, long deadline, int[] solution) {
+        int solutions = run(cells, limit, deadline, solution, null);
+        return timedOut ? -1 : solutions;
+    }
+
+    /**
+     * Covers the givens, runs the search and restores the matrix.
+     *
+     * @param cells    the puzzle.
+     * @param limit    the number of solutions after which the search stops.
+     * @param deadline the {@link System#nanoTime()} value at which the search is abandoned.
+     * @param output    where to write the first solution, or null to only count. Cells that are
+     *                  given in {@code cells} are not written.
+     * @param cancelled checked together with the deadline; once it returns true the search stops
+     *                  as if the deadline had passed. May be null.
+     * @return the number of solutions found, or {@code limit} if the deadline passed.
+     */
+    int run(int[] cells, int limit, long deadline, int[] output, BooleanSupplier cancelled) {
+        if (cells.length != geometry.getCellCount()) {
+            throw new IllegalArgumentException("Expected " + geometry.getCellCount() + " cells");
+        }
+        this.limit = limit;
+        this.found = 0;
+        this.deadline = deadline;
+        this.timedOut = false;
+        this.steps = 0;
+        this.output = output;
+        this.cancelled = cancelled;
+
+        // Select the candidate row of every given; conflicting givens mean no solution
+        int givens = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < cells.length && consistent; cell++) {
+            int value = cells[cell];
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                restoreGivens(givens);
+                throw new IllegalArgumentException("Invalid digit " + value + " at cell " + cell);
+            }
+            int node = nodeOf(cell, value - 1);
+            if (covered[column[node]] || covered[column[node + 1]]
+                    || covered[column[node + 2]] || covered[column[node + 3]]) {
+                consistent = false;
+            } else {
+                selectRow(node);
+                givenRows[givens++] = node;
+            }
+        }
+
+        if (consistent) {
+            search(0);
+        }
+        restoreGivens(givens);
+        this.output = null;
+        this.cancelled = null;
+        return timedOut ? limit : found;
+    }
+
+    /**
+     * Algorithm X: covers the column with the fewest nodes and tries each of its rows.
+     *
+     * @param depth the number of rows chosen so far by the search.
+     */
+    private void search(int depth) {
+        if (++steps % CLOCK_CHECK_INTERVAL == 0
+                && ((deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0)
+                || (cancelled != null && cancelled.getAsBoolean()))) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return;
+        }
+
+        // All constraints satisfied: a solution
+        if (right[0] == 0) {
+            if (found == 0 && output != null) {
+                for (int i = 0; i < depth; i++) {
+                    int candidate = (searchRows[i] - firstNode) / 4;
+                    output[candidate / size] = candidate % size + 1;
+                }
+            }
+            found++;
+            return;
+        }
+
+        // Choose the column with the fewest remaining rows
+        int best = right[0];
+        for (int header = right[best]; header != 0 && columnSize[best] > 1; header = right[header]) {
+            if (columnSize[header] < columnSize[best]) {
+                best = header;
+            }
+        }
+        if (columnSize[best] == 0) {
+            return;
+        }
+
+        cover(best);
+        for (int node = down[best]; node != best && found < limit && !timedOut; node = down[node]) {
+            searchRows[depth] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(best);
+    }
+
+    private void selectRow(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void restoreGivens(int givens) {
+        for (int i = givens - 1; i >= 0; i--) {
+            int node = givenRows[i];
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            uncover(column[node]);
+        }
+    }
+
+    private void cover(int header) {
+        covered[header] = true;
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+        covered[header] = false;
+    }
+
+    private void link(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        columnSize[header]++;
+    }
+
+    private int nodeOf(int cell, int digit) {
+        return firstNode + 4 * (cell * size + digit);
+    }
+}
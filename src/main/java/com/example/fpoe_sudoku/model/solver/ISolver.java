@@ -0,0 +1,70 @@
+package com.example.fpoe_sudoku.model.solver;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+/**
+ * Defines the contract for a Sudoku solver bound to one {@link BoardGeometry}.
+ * <p>
+ * Grids are passed as flat {@code int[]} arrays in row-major order, with 0 for empty cells.
+ * Implementations may reuse internal buffers between calls, so a single instance must not be
+ * used by several threads at the same time.
+ */
+public interface ISolver {
+    /**
+     * Returns the shape of the boards this solver works on.
+     *
+     * @return the board geometry.
+     */
+    BoardGeometry getGeometry();
+
+    /**
+     * Solves a puzzle in place.
+     *
+     * @param cells the puzzle; on success its empty cells are filled with the first solution found.
+     * @return {@code true} if a solution was found, {@code false} otherwise (cells are left unchanged).
+     */
+    boolean solve(int[] cells);
+
+    /**
+     * Counts the solutions of a puzzle, up to a limit, giving up at a deadline.
+     *
+     * @param cells    the puzzle; it is left unchanged.
+     * @param limit    the number of solutions after which the search stops.
+     * @param deadline the {@link System#nanoTime()} value at which the search is abandoned,
+     *                 or {@link Long#MAX_VALUE} for no deadline.
+     * @return the number of solutions found, or {@code limit} if the deadline passed.
+     */
+    int countSolutions(int[] cells, int limit, long deadline);
+
+    /**
+     * Counts the solutions of a puzzle, up to a limit.
+     *
+     * @param cells the puzzle; it is left unchanged.
+     * @param limit the number of solutions after which the search stops.
+     * @return the number of solutions found, never greater than {@code limit}.
+     */
+    default int countSolutions(int[] cells, int limit) {
+        return countSolutions(cells, limit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether a puzzle has exactly one solution.
+     *
+     * @param cells the puzzle; it is left unchanged.
+     * @return {@code true} if the puzzle has one and only one solution.
+     */
+    default boolean hasUniqueSolution(int[] cells) {
+        return countSolutions(cells, 2) == 1;
+    }
+
+    /**
+     * Checks whether a puzzle has exactly one solution, giving up at a deadline.
+     *
+     * @param cells    the puzzle; it is left unchanged.
+     * @param deadline the {@link System#nanoTime()} value at which the check is abandoned.
+     * @return {@code true} if the puzzle was proven to have one and only one solution in time.
+     */
+    default boolean hasUniqueSolution(int[] cells, long deadline) {
+        return countSolutions(cells, 2, deadline) == 1;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.fpoe_sudoku.model.solver;
+
+import com.example.fpoe_sudoku.model.board.BitBoard;
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts solutions in parallel by splitting the search tree into fork/join tasks.
+ * <p>
+ * The first {@code splitDepth} levels branch on the empty cell with the fewest candidates: every
+ * candidate becomes its own task with its own copy of the board.
+ * Each subtree below that depth is then searched by the worker thread's
+ * {@link DancingLinksSolver}, so the parallel search prunes exactly as the sequential one does.
+ * All tasks of a search share an atomic solution counter and an early-stop flag, so once
+ * {@code limit} solutions are found (or the deadline passes) every task stops at its next clock check.
+ * <p>
+ * This pays off on 16x16 and 25x25 grids with several cores, which is why {@link Board} picks it
+ * there; for small boards the sequential solver is faster. Unlike the other solvers, one instance
+ * may be shared between threads.
+ */
+public class ParallelSolver implements ISolver {
+    /** Default number of branching cells that are split into tasks. */
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    /** Smallest board size for which splitting the search is worth its overhead. */
+    public static final int MIN_PARALLEL_SIZE = 16;
+
+    // Results of mostConstrainedCell that are not cell indexes.
+    private static final int SOLVED = -1;
+    private static final int DEAD_END = -2;
+
+    private final BoardGeometry geometry;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Creates a parallel solver that runs on the common fork/join pool.
+     *
+     * @param geometry the shape of the boards to solve.
+     */
+    public ParallelSolver(BoardGeometry geometry) {
+        this(geometry, ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Creates a parallel solver.
+     *
+     * @param geometry   the shape of the boards to solve.
+     * @param pool       the pool that runs the search tasks.
+     * @param splitDepth how many branching cells are split into separate tasks.
+     */
+    public ParallelSolver(BoardGeometry geometry, ForkJoinPool pool, int splitDepth) {
+        this.geometry = geometry;
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(int[] cells) {
+        Search search = new Search(1, Long.MAX_VALUE, cells);
+        return search.run(cells) == 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(int[] cells, int limit, long deadline) {
+        return new Search(limit, deadline, null).run(cells);
+    }
+
+    /**
+     * Finds the empty cell with the fewest candidates.
+     *
+     * @param board the board to inspect.
+     * @return the row-major index of the cell, {@link #SOLVED} if the board has no empty cells,
+     *         or {@link #DEAD_END} if some empty cell has no candidates left.
+     */
+    private static int mostConstrainedCell(BitBoard board) {
+        int size = board.size();
+        int best = SOLVED;
+        int bestCount = Integer.MAX_VALUE;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (board.get(row, col) != 0) {
+                    continue;
+                }
+                int count = Integer.bitCount(board.candidates(row, col));
+                if (count == 0) {
+                    return DEAD_END;
+                }
+                if (count < bestCount) {
+                    best = row * size + col;
+                    bestCount = count;
+                    if (count == 1) {
+                        return best;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Shared state of one parallel search.
+     */
+    private final class Search {
+        private final int limit;
+        private final long deadline;
+        private final int[] output;
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicBoolean stop = new AtomicBoolean();
+        private volatile boolean timedOut;
+
+        private Search(int limit, long deadline, int[] output) {
+            this.limit = limit;
+            this.deadline = deadline;
+            this.output = output;
+        }
+
+        private int run(int[] cells) {
+            BitBoard board = new BitBoard(geometry);
+            board.load(cells);
+            if (!board.isConsistent()) {
+                return 0;
+            }
+            pool.invoke(new CountTask(this, board, 0));
+            return timedOut ? limit : Math.min(found.get(), limit);
+        }
+
+        /**
+         * Records the solutions found by a task and raises the stop flag once the limit is reached.
+         *
+         * @param count    the number of solutions the task found.
+         * @param solution the first of them, or null if the search only counts.
+         */
+        private void solutionsFound(int count, int[] solution) {
+            int total = found.addAndGet(count);
+            if (total == count && output != null) {
+                System.arraycopy(solution, 0, output, 0, output.length);
+            }
+            if (total >= limit) {
+                stop.set(true);
+            }
+        }
+
+        private void checkDeadline() {
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                timedOut = true;
+                stop.set(true);
+            }
+        }
+    }
+
+    /**
+     * Searches one subtree: forks a task per candidate while shallow, then counts with Dancing Links.
+     */
+    private final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Search search;
+        private final transient BitBoard board;
+        private final int depth;
+
+        private CountTask(Search search, BitBoard board, int depth) {
+            this.search = search;
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth) {
+                count();
+                return;
+            }
+            if (search.stop.get()) {
+                return;
+            }
+
+            int cell = mostConstrainedCell(board);
+            if (cell == SOLVED) {
+                int[] solution = new int[geometry.getCellCount()];
+                board.copyTo(solution);
+                search.solutionsFound(1, solution);
+                return;
+            }
+            if (cell == DEAD_END) {
+                return;
+            }
+
+            int size = geometry.getSize();
+            int row = cell / size;
+            int col = cell % size;
+            int candidates = board.candidates(row, col);
+            CountTask[] tasks = new CountTask[Integer.bitCount(candidates)];
+            for (int i = 0; i < tasks.length; i++) {
+                int bit = Integer.lowestOneBit(candidates);
+                candidates &= ~bit;
+                BitBoard child = new BitBoard(board);
+                child.place(row, col, Integer.numberOfTrailingZeros(bit) + 1);
+                tasks[i] = new CountTask(search, child, depth + 1);
+            }
+            invokeAll(tasks);
+        }
+
+        private void count() {
+            if (search.stop.get()) {
+                return;
+            }
+            int[] cells = new int[geometry.getCellCount()];
+            board.copyTo(cells);
+            int[] solution = search.output == null ? null : cells.clone();
+            int remaining = Math.max(1, search.limit - search.found.get());
+            int count = DancingLinksSolver.local(geometry)
+                    .run(cells, remaining, search.deadline, solution, search.stop::get);
+            search.checkDeadline();
+            if (count > 0 && !search.timedOut) {
+                search.solutionsFound(count, solution);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Update of the value and style of one cell of the board view, on the JavaFX thread.
+ */
+@Name("com.example.fpoe_sudoku.CellStyle")
+@Label("Cell Style Update")
+public class CellStyleEvent extends SudokuEvent {
+
+    @Label("Cell")
+    int cell;
+
+    @Label("State")
+    String state;
+
+    @Label("Renderer")
+    String renderer;
+
+    /**
+     * @param cell     the cell index.
+     * @param state    the name of the new state of the cell.
+     * @param renderer the name of the renderer drawing the board.
+     */
+    public void setCell(int cell, String state, String renderer) {
+        this.cell = cell;
+        this.state = state;
+        this.renderer = renderer;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Check of whether the board is solved after a move.
+ */
+@Name("com.example.fpoe_sudoku.CompletionCheck")
+@Label("Completion Check")
+public class CompletionCheckEvent extends SudokuEvent {
+
+    @Label("Filled Cells")
+    int filled;
+
+    @Label("Conflicts")
+    int conflicts;
+
+    @Label("Solved")
+    boolean solved;
+
+    /**
+     * @param filled    the cells holding a digit.
+     * @param conflicts the conflicting pairs of cells.
+     * @param solved    true if the board is solved.
+     */
+    public void setResult(int filled, int conflicts, boolean solved) {
+        this.filled = filled;
+        this.conflicts = conflicts;
+        this.solved = solved;
+    }
+}
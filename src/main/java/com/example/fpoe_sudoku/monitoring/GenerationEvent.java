@@ -0,0 +1,36 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Generation of a puzzle, from the first fill attempt to the end of carving.
+ */
+@Name("com.example.fpoe_sudoku.Generation")
+@Label("Puzzle Generation")
+public class GenerationEvent extends SudokuEvent {
+
+    @Label("Attempts")
+    @Description("Fill attempts used to build the complete grid")
+    int attempts;
+
+    @Label("Backtracks")
+    @Description("Backtracks over all fill attempts")
+    long backtracks;
+
+    @Label("Clues")
+    @Description("Clues left after carving")
+    int clues;
+
+    /**
+     * @param attempts   the fill attempts used.
+     * @param backtracks the backtracks over all attempts.
+     * @param clues      the clues left in the puzzle.
+     */
+    public void setResult(int attempts, long backtracks, int clues) {
+        this.attempts = attempts;
+        this.backtracks = backtracks;
+        this.clues = clues;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A hint request, from the start of the search to the cell being filled. A cancelled search has
+ * no technique.
+ */
+@Name("com.example.fpoe_sudoku.Hint")
+@Label("Hint Request")
+public class HintEvent extends SudokuEvent {
+
+    @Label("Technique")
+    String technique;
+
+    @Label("Search Nodes")
+    @Description("Cells and units the hint engine examined")
+    long searchNodes;
+
+    @Label("Cancelled")
+    boolean cancelled;
+
+    /**
+     * @param technique   the name of the technique that found the hint, or null.
+     * @param searchNodes the cells and units examined.
+     * @param cancelled   true if the search was dropped because newer input was waiting.
+     */
+    public void setResult(String technique, long searchNodes, boolean cancelled) {
+        this.technique = technique;
+        this.searchNodes = searchNodes;
+        this.cancelled = cancelled;
+    }
+}
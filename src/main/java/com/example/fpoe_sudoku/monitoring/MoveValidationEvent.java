@@ -0,0 +1,33 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validation of a move typed by the player, including the update of the board and of the hint
+ * candidates.
+ */
+@Name("com.example.fpoe_sudoku.MoveValidation")
+@Label("Move Validation")
+public class MoveValidationEvent extends SudokuEvent {
+
+    @Label("Cell")
+    int cell;
+
+    @Label("Value")
+    int value;
+
+    @Label("Valid")
+    boolean valid;
+
+    /**
+     * @param cell  the cell index.
+     * @param value the digit entered, or 0 for an emptied cell.
+     * @param valid true if the digit breaks no rule.
+     */
+    public void setMove(int cell, int value, boolean valid) {
+        this.cell = cell;
+        this.value = value;
+        this.valid = valid;
+    }
+}
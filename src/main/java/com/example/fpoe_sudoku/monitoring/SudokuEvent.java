@@ -0,0 +1,43 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the Flight Recorder events of the game: every event carries the shape of the board it
+ * happened on, besides the duration recorded by JFR itself.
+ * <p>
+ * The events are only committed while a recording that enables them is running, e.g. one started
+ * with {@code jcmd <pid> JFR.start}. Otherwise {@code begin()}, {@code end()} and
+ * {@code commit()} are empty calls the JIT removes, so the instrumented code pays nearly nothing.
+ * Code that has to compute a field should check {@code isEnabled()} first.
+ */
+@Category("Sudoku")
+@StackTrace(false)
+public abstract class SudokuEvent extends Event {
+
+    @Label("Size")
+    @Description("Rows, columns and digits of the board")
+    int size;
+
+    @Label("Block Rows")
+    int blockRows;
+
+    @Label("Block Columns")
+    int blockCols;
+
+    /**
+     * Copies the shape of a board into the event.
+     *
+     * @param geometry the shape of the board.
+     */
+    public void setGeometry(BoardGeometry geometry) {
+        size = geometry.getSize();
+        blockRows = geometry.getBlockRows();
+        blockCols = geometry.getBlockCols();
+    }
+}
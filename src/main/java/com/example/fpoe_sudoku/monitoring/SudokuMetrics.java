@@ -0,0 +1,251 @@
+package com.example.fpoe_sudoku.monitoring;
+
+import com.example.fpoe_sudoku.model.board.Board;
+import com.example.fpoe_sudoku.model.game.ModelExecutor;
+import com.example.fpoe_sudoku.utils.LatencyHistogram;
+import com.example.fpoe_sudoku.utils.Log;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters and latency histograms of the game engine, published as a JMX MBean named
+ * {@value #OBJECT_NAME} so they can be read from JConsole or any local JMX client.
+ * <p>
+ * The recording methods are called on the keystroke path, so they take no lock and allocate
+ * nothing: counters are {@link LongAdder}s and latencies go to {@link LatencyHistogram}s.
+ * Reading an attribute sums the stripes and walks the buckets, which only the JMX client pays.
+ * <p>
+ * The generation latency is the one {@link Board} already keeps, and the queue and feedback
+ * figures are read from the {@link ModelExecutor} of the current game.
+ */
+public class SudokuMetrics implements SudokuMetricsMBean {
+
+    /** Name under which the metrics are registered. */
+    public static final String OBJECT_NAME = "com.example.fpoe_sudoku:type=SudokuMetrics";
+
+    private final LongAdder puzzlesGenerated = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder hintsServed = new LongAdder();
+    private final LatencyHistogram validation = new LatencyHistogram();
+    private final LatencyHistogram completionCheck = new LatencyHistogram();
+    private final LatencyHistogram hint = new LatencyHistogram();
+
+    // Time to the first frame of the last game window, in nanoseconds
+    private volatile long firstFrameNanos;
+
+    // Model thread of the current game, or null
+    private volatile ModelExecutor modelExecutor;
+
+    private SudokuMetrics() {
+    }
+
+    /**
+     * Inner static class to hold the singleton instance (lazy initialization).
+     */
+    private static class Holder {
+        private static final SudokuMetrics INSTANCE = new SudokuMetrics();
+    }
+
+    /**
+     * Provides global access to the metrics. They are recorded whether or not they are
+     * registered.
+     *
+     * @return the single instance of SudokuMetrics.
+     */
+    public static SudokuMetrics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server. Does nothing if they already are.
+     */
+    public static void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(getInstance(), name);
+            }
+        } catch (JMException e) {
+            Log.warn("No se pudieron publicar las métricas: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts a generated puzzle.
+     *
+     * @param fillBacktracks the backtracks its fill took.
+     */
+    public void puzzleGenerated(long fillBacktracks) {
+        puzzlesGenerated.increment();
+        backtracks.add(fillBacktracks);
+    }
+
+    /**
+     * Records the validation of a move.
+     *
+     * @param nanos the time to store and validate it.
+     */
+    public void moveValidated(long nanos) {
+        validation.record(nanos);
+    }
+
+    /**
+     * Records a completion check.
+     *
+     * @param nanos the time it took.
+     */
+    public void completionChecked(long nanos) {
+        completionCheck.record(nanos);
+    }
+
+    /**
+     * Records a hint given to the player.
+     *
+     * @param nanos the time to find and place it.
+     */
+    public void hintServed(long nanos) {
+        hintsServed.increment();
+        hint.record(nanos);
+    }
+
+    /**
+     * Records the time a game window took to draw its first frame.
+     *
+     * @param nanos the time from creating the window to its first frame.
+     */
+    public void firstFrame(long nanos) {
+        firstFrameNanos = nanos;
+    }
+
+    /**
+     * Sets the model thread whose queue and feedback latency are published.
+     *
+     * @param executor the model thread of the current game.
+     */
+    public void setModelExecutor(ModelExecutor executor) {
+        modelExecutor = executor;
+    }
+
+    @Override
+    public long getPuzzlesGenerated() {
+        return puzzlesGenerated.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public double getGenerationP50Millis() {
+        return Board.getGenerationLatency().getPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getGenerationP99Millis() {
+        return Board.getGenerationLatency().getPercentile(99) / 1e6;
+    }
+
+    @Override
+    public long getValidations() {
+        return validation.getCount();
+    }
+
+    @Override
+    public double getValidationP50Micros() {
+        return validation.getPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getValidationP99Micros() {
+        return validation.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getValidationMaxMicros() {
+        return validation.getMax() / 1e3;
+    }
+
+    @Override
+    public long getCompletionChecks() {
+        return completionCheck.getCount();
+    }
+
+    @Override
+    public double getCompletionCheckP99Micros() {
+        return completionCheck.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public long getHintsServed() {
+        return hintsServed.sum();
+    }
+
+    @Override
+    public double getHintP50Millis() {
+        return hint.getPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getHintP99Millis() {
+        return hint.getPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double getLastFirstFrameMillis() {
+        return firstFrameNanos / 1e6;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        ModelExecutor executor = modelExecutor;
+        return executor == null ? 0 : executor.getQueueDepth();
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        ModelExecutor executor = modelExecutor;
+        return executor == null ? 0 : executor.getMaxQueueDepth();
+    }
+
+    @Override
+    public long getCoalescedMoves() {
+        ModelExecutor executor = modelExecutor;
+        return executor == null ? 0 : executor.getCoalescedMoves();
+    }
+
+    @Override
+    public double getFeedbackP50Millis() {
+        ModelExecutor executor = modelExecutor;
+        return executor == null ? 0 : executor.getFeedbackLatency().getPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getFeedbackP99Millis() {
+        ModelExecutor executor = modelExecutor;
+        return executor == null ? 0 : executor.getFeedbackLatency().getPercentile(99) / 1e6;
+    }
+
+    @Override
+    public long getDroppedLogMessages() {
+        return Log.getDropped();
+    }
+
+    @Override
+    public void reset() {
+        puzzlesGenerated.reset();
+        backtracks.reset();
+        hintsServed.reset();
+        validation.reset();
+        completionCheck.reset();
+        hint.reset();
+        Board.getGenerationLatency().reset();
+        ModelExecutor executor = modelExecutor;
+        if (executor != null) {
+            executor.getFeedbackLatency().reset();
+        }
+    }
+}
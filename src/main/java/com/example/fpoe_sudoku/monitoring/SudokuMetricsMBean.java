@@ -0,0 +1,114 @@
+package com.example.fpoe_sudoku.monitoring;
+
+/**
+ * Management interface of {@link SudokuMetrics}, as shown by JConsole or any JMX client.
+ * Latencies are given as percentiles of the recorded histograms.
+ */
+public interface SudokuMetricsMBean {
+
+    /**
+     * @return the puzzles generated in this JVM.
+     */
+    long getPuzzlesGenerated();
+
+    /**
+     * @return the backtracks of {@code fillBlocks} over all generated puzzles.
+     */
+    long getBacktracks();
+
+    /**
+     * @return the median generation time, in milliseconds.
+     */
+    double getGenerationP50Millis();
+
+    /**
+     * @return the 99th percentile of the generation time, in milliseconds.
+     */
+    double getGenerationP99Millis();
+
+    /**
+     * @return the moves validated.
+     */
+    long getValidations();
+
+    /**
+     * @return the median time to store and validate a move, in microseconds.
+     */
+    double getValidationP50Micros();
+
+    /**
+     * @return the 99th percentile of the time to store and validate a move, in microseconds.
+     */
+    double getValidationP99Micros();
+
+    /**
+     * @return the longest time taken to store and validate a move, in microseconds.
+     */
+    double getValidationMaxMicros();
+
+    /**
+     * @return the completion checks made.
+     */
+    long getCompletionChecks();
+
+    /**
+     * @return the 99th percentile of the time of a completion check, in microseconds.
+     */
+    double getCompletionCheckP99Micros();
+
+    /**
+     * @return the hints given to the player.
+     */
+    long getHintsServed();
+
+    /**
+     * @return the median time to find and place a hint, in milliseconds.
+     */
+    double getHintP50Millis();
+
+    /**
+     * @return the 99th percentile of the time to find and place a hint, in milliseconds.
+     */
+    double getHintP99Millis();
+
+    /**
+     * @return the time from creating the last game window to its first frame, in milliseconds.
+     */
+    double getLastFirstFrameMillis();
+
+    /**
+     * @return the inputs waiting for the model thread of the current game.
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the largest number of inputs that waited for the model thread of the current game.
+     */
+    int getMaxQueueDepth();
+
+    /**
+     * @return the moves of the current game merged into an earlier move for the same cell.
+     */
+    long getCoalescedMoves();
+
+    /**
+     * @return the median time from an input to its change on screen in the current game, in milliseconds.
+     */
+    double getFeedbackP50Millis();
+
+    /**
+     * @return the 99th percentile of the time from an input to its change on screen in the
+     *         current game, in milliseconds.
+     */
+    double getFeedbackP99Millis();
+
+    /**
+     * @return the log messages dropped because the logger could not keep up.
+     */
+    long getDroppedLogMessages();
+
+    /**
+     * Forgets every counter and latency, e.g. before a measured session.
+     */
+    void reset();
+}
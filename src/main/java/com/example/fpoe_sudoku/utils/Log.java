@@ -0,0 +1,168 @@
+package com.example.fpoe_sudoku.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Level-gated logger that never blocks the caller.
+ * <p>
+ * A message below the configured level costs one comparison: the format string and its
+ * arguments are only turned into text if the message is accepted. Accepted messages are put in a
+ * bounded queue and formatted and printed by a daemon thread, so neither formatting nor a slow
+ * console delays the JavaFX or model threads. When the queue is full the message is dropped and
+ * counted; the number of dropped messages is printed with the next message that gets through.
+ * <p>
+ * The level is read once from the {@code sudoku.log} system property ({@code DEBUG},
+ * {@code INFO}, {@code WARN}, {@code ERROR} or {@code OFF}) and defaults to {@code INFO}.
+ */
+public final class Log {
+
+    /**
+     * Importance of a message, from the most verbose to none at all.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    // Messages waiting to be printed
+    private static final int CAPACITY = 1024;
+
+    private static final Level LEVEL = parseLevel(System.getProperty("sudoku.log"));
+    private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    static {
+        Thread writer = new Thread(Log::write, "sudoku-log");
+        writer.setDaemon(true);
+        writer.start();
+        // Print what is still queued when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Entry entry;
+            while ((entry = QUEUE.poll()) != null) {
+                print(entry);
+            }
+        }, "sudoku-log-flush"));
+    }
+
+    /**
+     * One accepted message, formatted by the writer thread.
+     */
+    private static final class Entry {
+        private final Level level;
+        private final String format;
+        private final Object[] args;
+
+        private Entry(Level level, String format, Object[] args) {
+            this.level = level;
+            this.format = format;
+            this.args = args;
+        }
+    }
+
+    private Log() {
+    }
+
+    /**
+     * @param level the level of a message.
+     * @return true if messages of that level are printed; check it before building costly arguments.
+     */
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) >= 0 && LEVEL != Level.OFF;
+    }
+
+    /**
+     * Logs a debug message, for events that happen on every move.
+     *
+     * @param format the {@link String#format} pattern.
+     * @param args   the arguments of the pattern.
+     */
+    public static void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+
+    /**
+     * Logs a message about the progress of the game.
+     *
+     * @param format the {@link String#format} pattern.
+     * @param args   the arguments of the pattern.
+     */
+    public static void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    /**
+     * Logs a problem the game recovers from.
+     *
+     * @param format the {@link String#format} pattern.
+     * @param args   the arguments of the pattern.
+     */
+    public static void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+
+    /**
+     * Logs an error.
+     *
+     * @param format the {@link String#format} pattern.
+     * @param args   the arguments of the pattern.
+     */
+    public static void error(String format, Object... args) {
+        log(Level.ERROR, format, args);
+    }
+
+    /**
+     * @return the number of messages dropped because the queue was full.
+     */
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    private static void log(Level level, String format, Object[] args) {
+        if (isEnabled(level) && !QUEUE.offer(new Entry(level, format, args))) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * Body of the writer thread.
+     */
+    private static void write() {
+        long reported = 0;
+        while (true) {
+            Entry entry;
+            try {
+                entry = QUEUE.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long dropped = DROPPED.get();
+            if (dropped != reported) {
+                System.out.println("[WARN] " + (dropped - reported) + " log messages dropped");
+                reported = dropped;
+            }
+            print(entry);
+        }
+    }
+
+    private static void print(Entry entry) {
+        String text = entry.args.length == 0 ? entry.format : String.format(entry.format, entry.args);
+        if (entry.level == Level.INFO) {
+            System.out.println(text);
+        } else {
+            System.out.println("[" + entry.level + "] " + text);
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Nivel de registro desconocido: " + value + " (se usa INFO)");
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.fpoe_sudoku.view;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+
+import java.util.Locale;
+
+/**
+ * Ways of drawing the board in the game view.
+ */
+public enum BoardRenderer {
+    /** One TextField per cell; simple, but the scene graph grows with the board. */
+    TEXT_FIELDS,
+    /** A single {@link CanvasBoardView}, with a constant number of nodes whatever the board size. */
+    CANVAS;
+
+    /** System property that forces a renderer ({@code text_fields} or {@code canvas}). */
+    public static final String PROPERTY = "sudoku.renderer";
+
+    // Largest board drawn with TextFields unless the property says otherwise
+    private static final int MAX_TEXT_FIELD_SIZE = 12;
+
+    /**
+     * Chooses the renderer for a board: the one named by the {@value #PROPERTY} system property if
+     * it is set, otherwise TextFields up to 12x12 boards and the canvas for larger ones.
+     *
+     * @param geometry the shape of the board.
+     * @return the renderer.
+     */
+    public static BoardRenderer forGeometry(BoardGeometry geometry) {
+        String forced = System.getProperty(PROPERTY);
+        if (forced != null && !forced.isBlank()) {
+            return valueOf(forced.trim().toUpperCase(Locale.ROOT));
+        }
+        return geometry.getSize() > MAX_TEXT_FIELD_SIZE ? CANVAS : TEXT_FIELDS;
+    }
+}
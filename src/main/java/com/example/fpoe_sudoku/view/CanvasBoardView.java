@@ -0,0 +1,292 @@
+package com.example.fpoe_sudoku.view;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Board view that draws every cell on one {@link Canvas} and edits the selected cell with a single
+ * shared {@link TextField} placed over it, so the scene graph holds two nodes whatever the size
+ * of the board, instead of one control (and its listeners) per cell.
+ * <p>
+ * The view only keeps what it draws: the value and {@link CellState} of every cell. A change
+ * redraws that cell alone. Clicking a cell or moving with the arrow keys selects a cell; the
+ * editor takes the look of the cell's state from the board stylesheet, exactly like the
+ * TextFields of the other renderer. Edits are reported to a {@link CellListener}, which decides
+ * the new value and state and sends them back with {@link #setCell(int, int, int, CellState)}.
+ */
+public class CanvasBoardView extends Pane {
+
+    /**
+     * Receives the edits made through the view.
+     */
+    public interface CellListener {
+        /**
+         * Called when a key is released in the editor.
+         *
+         * @param row  the row of the edited cell.
+         * @param col  the column of the edited cell.
+         * @param text the text of the editor.
+         */
+        void cellTyped(int row, int col, String text);
+
+        /**
+         * Called when the value of a cell is deleted.
+         *
+         * @param row the row of the cell.
+         * @param col the column of the cell.
+         */
+        void cellCleared(int row, int col);
+
+        /**
+         * Called when the editor leaves a cell, because another one is selected or the board
+         * lost the focus.
+         *
+         * @param row the row of the cell.
+         * @param col the column of the cell.
+         */
+        void cellLeft(int row, int col);
+    }
+
+    // Colors of the board stylesheet, per cell state
+    private static final Color GRID = Color.WHITE;
+    private static final Color DARK = Color.web("#000000");
+    private static final Color GIVEN = Color.web("#300D0D");
+    private static final Color HINT = Color.web("#230B2E");
+    private static final Color HINT_BORDER = Color.web("#4D285C");
+
+    // Width of the lines between cells and between blocks, in pixels
+    private static final double THIN_LINE = 1;
+    private static final double BLOCK_LINE = 3;
+
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+    private final double cellSize;
+    private final int maxDigits;
+    private final CellListener listener;
+
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private final TextField editor;
+
+    // What is drawn in every cell
+    private final int[] values;
+    private final CellState[] states;
+
+    // Selected cell, or -1
+    private int selected = -1;
+
+    /**
+     * Creates the view with every cell empty.
+     *
+     * @param geometry  the shape of the board.
+     * @param cellSize  the width and height of a cell, in pixels.
+     * @param fontStyle the inline style that sets the font size of the editor.
+     * @param listener  the receiver of the edits.
+     */
+    public CanvasBoardView(BoardGeometry geometry, double cellSize, String fontStyle, CellListener listener) {
+        this.size = geometry.getSize();
+        this.blockRows = geometry.getBlockRows();
+        this.blockCols = geometry.getBlockCols();
+        this.cellSize = cellSize;
+        this.maxDigits = String.valueOf(size).length();
+        this.listener = listener;
+        this.values = new int[size * size];
+        this.states = new CellState[size * size];
+
+        canvas = new Canvas(size * cellSize, size * cellSize);
+        graphics = canvas.getGraphicsContext2D();
+        graphics.setFont(Font.font(null, FontWeight.BOLD, Math.round(cellSize * 0.36)));
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+        graphics.setFill(GRID);
+        graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        editor = new TextField();
+        editor.getStyleClass().add("sudoku-cell");
+        editor.setStyle(fontStyle);
+        editor.setAlignment(Pos.CENTER);
+        editor.setPrefSize(cellSize, cellSize);
+        editor.setMaxSize(cellSize, cellSize);
+        editor.setVisible(false);
+        handleEditor();
+
+        canvas.setOnMousePressed(event -> {
+            int row = (int) (event.getY() / cellSize);
+            int col = (int) (event.getX() / cellSize);
+            if (row >= 0 && row < size && col >= 0 && col < size) {
+                select(row * size + col);
+            }
+        });
+
+        for (int cell = 0; cell < states.length; cell++) {
+            states[cell] = CellState.EMPTY;
+            drawCell(cell);
+        }
+        getChildren().addAll(canvas, editor);
+        setPrefSize(canvas.getWidth(), canvas.getHeight());
+        setMaxSize(canvas.getWidth(), canvas.getHeight());
+    }
+
+    /**
+     * Shows a value and a state in a cell, redrawing only that cell.
+     *
+     * @param row    the row index.
+     * @param col    the column index.
+     * @param number the digit, or 0 for an empty cell.
+     * @param state  the state of the cell.
+     */
+    public void setCell(int row, int col, int number, CellState state) {
+        int cell = row * size + col;
+        if (cell == selected) {
+            showInEditor(cell, number, state);
+        }
+        if (values[cell] != number || states[cell] != state) {
+            values[cell] = number;
+            states[cell] = state;
+            drawCell(cell);
+        }
+    }
+
+    /**
+     * @return the number of nodes of the view, which does not depend on the board size.
+     */
+    public int getNodeCount() {
+        return getChildren().size();
+    }
+
+    /**
+     * Attaches the input handlers of the editor: the same digit filtering as the TextField cells,
+     * plus the arrow keys to move the selection.
+     */
+    private void handleEditor() {
+        editor.setOnKeyTyped(event -> {
+            String character = event.getCharacter();
+            int kept = editor.getText().length() - editor.getSelection().getLength();
+            if (!character.matches("[0-9]") || (kept >= maxDigits && !character.isEmpty())) {
+                event.consume();
+            }
+        });
+
+        editor.setOnKeyPressed(event -> {
+            if (selected < 0) {
+                return;
+            }
+            int row = selected / size;
+            int col = selected % size;
+            KeyCode code = event.getCode();
+            if (code == KeyCode.BACK_SPACE || code == KeyCode.DELETE) {
+                if (editor.isEditable()) {
+                    editor.setText("");
+                    listener.cellCleared(row, col);
+                }
+                event.consume();
+            } else if (code == KeyCode.UP && row > 0) {
+                select(selected - size);
+                event.consume();
+            } else if (code == KeyCode.DOWN && row < size - 1) {
+                select(selected + size);
+                event.consume();
+            } else if (code == KeyCode.LEFT && col > 0) {
+                select(selected - 1);
+                event.consume();
+            } else if (code == KeyCode.RIGHT && col < size - 1) {
+                select(selected + 1);
+                event.consume();
+            }
+        });
+
+        editor.setOnKeyReleased(event -> {
+            if (selected >= 0 && editor.isEditable() && !event.getCode().isArrowKey()) {
+                listener.cellTyped(selected / size, selected % size, editor.getText().trim());
+            }
+        });
+
+        editor.focusedProperty().addListener((observable, oldValue, newValue) -> {
+            if (!newValue && selected >= 0) {
+                listener.cellLeft(selected / size, selected % size);
+            }
+        });
+    }
+
+    /**
+     * Moves the editor over a cell.
+     *
+     * @param cell the cell index.
+     */
+    private void select(int cell) {
+        if (cell == selected) {
+            editor.requestFocus();
+            return;
+        }
+        int previous = selected;
+        selected = cell;
+        if (previous >= 0) {
+            listener.cellLeft(previous / size, previous % size);
+        }
+        editor.relocate((cell % size) * cellSize, (cell / size) * cellSize);
+        showInEditor(cell, values[cell], states[cell]);
+        editor.setVisible(true);
+        editor.requestFocus();
+        editor.selectAll();
+    }
+
+    private void showInEditor(int cell, int number, CellState state) {
+        String text = number == 0 ? "" : String.valueOf(number);
+        if (!editor.getText().equals(text)) {
+            editor.setText(text);
+        }
+        editor.setEditable(state != CellState.GIVEN);
+        state.applyTo(editor);
+    }
+
+    /**
+     * Paints one cell, inside the grid lines around it.
+     *
+     * @param cell the cell index.
+     */
+    private void drawCell(int cell) {
+        int row = cell / size;
+        int col = cell % size;
+        double left = col * cellSize + (col % blockCols == 0 ? BLOCK_LINE : THIN_LINE) / 2;
+        double top = row * cellSize + (row % blockRows == 0 ? BLOCK_LINE : THIN_LINE) / 2;
+        double right = (col + 1) * cellSize - ((col + 1) % blockCols == 0 ? BLOCK_LINE : THIN_LINE) / 2;
+        double bottom = (row + 1) * cellSize - ((row + 1) % blockRows == 0 ? BLOCK_LINE : THIN_LINE) / 2;
+
+        CellState state = states[cell];
+        Color background = switch (state) {
+            case GIVEN -> GIVEN;
+            case INVALID -> Color.WHITE;
+            case HINT -> HINT;
+            default -> DARK;
+        };
+        graphics.setFill(background);
+        graphics.fillRect(left, top, right - left, bottom - top);
+
+        Color border = switch (state) {
+            case INVALID -> Color.RED;
+            case HINT -> HINT_BORDER;
+            default -> null;
+        };
+        if (border != null) {
+            graphics.setStroke(border);
+            graphics.setLineWidth(2);
+            graphics.strokeRect(left + 1, top + 1, right - left - 2, bottom - top - 2);
+        }
+
+        if (values[cell] != 0) {
+            graphics.setFill(state == CellState.INVALID ? Color.BLACK : Color.WHITE);
+            graphics.fillText(String.valueOf(values[cell]), (left + right) / 2, (top + bottom) / 2);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.fpoe_sudoku.view;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+
+import java.util.Locale;
+
+/**
+ * Display states of a board cell. Each state is a pseudo-class of the board stylesheet
+ * ({@code sudoku-board.css}), so switching a cell's state does not parse any CSS.
+ */
+public enum CellState {
+    /** Pre-filled cell that cannot be edited. */
+    GIVEN,
+    /** Editable cell without a value. */
+    EMPTY,
+    /** Value that agrees with its row, column and block. */
+    VALID,
+    /** Value that repeats a digit of its row, column or block. */
+    INVALID,
+    /** Value filled in by a hint. */
+    HINT;
+
+    private final PseudoClass pseudoClass = PseudoClass.getPseudoClass(name().toLowerCase(Locale.ROOT));
+
+    /**
+     * @return the pseudo-class of this state in the board stylesheet.
+     */
+    public PseudoClass getPseudoClass() {
+        return pseudoClass;
+    }
+
+    /**
+     * Switches a node to this state, turning the pseudo-classes of the other states off.
+     *
+     * @param node the cell node.
+     */
+    public void applyTo(Node node) {
+        for (CellState state : values()) {
+            node.pseudoClassStateChanged(state.pseudoClass, state == this);
+        }
+    }
+}
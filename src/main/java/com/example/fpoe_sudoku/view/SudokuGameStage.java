@@ -1,5 +1,6 @@
 package com.example.fpoe_sudoku.view;
 import com.example.fpoe_sudoku.controller.SudokuGameController;
+import com.example.fpoe_sudoku.monitoring.SudokuMetrics;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -17,11 +18,13 @@ public class SudokuGameStage extends Stage {
 
     /**
      * Private constructor to enforce the singleton pattern. It loads the FXML view,
-     * sets up the scene, and configures the stage properties.
+     * sets up the scene, and configures the stage properties. The time until the first frame is
+     * laid out, which includes building the game, is recorded in {@link SudokuMetrics}.
      *
      * @throws IOException if the FXML file cannot be loaded.
      */
     private SudokuGameStage() throws IOException {
+        long created = System.nanoTime();
         FXMLLoader loader = new FXMLLoader(
                 getClass().getResource("/com/example/fpoe_sudoku/sudoku-game-view.fxml")
         );
@@ -29,9 +32,17 @@ public class SudokuGameStage extends Stage {
         controller = loader.getController();
 
         Scene scene = new Scene(root);
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                SudokuMetrics.getInstance().firstFrame(System.nanoTime() - created);
+                scene.removePostLayoutPulseListener(this);
+            }
+        });
         setScene(scene);
         setTitle("Sudoku");
         setResizable(false);
+        setOnHidden(event -> controller.shutdown());
         getIcons().add(
                 new Image(String.valueOf(getClass().getResource("/com/example/fpoe_sudoku/SUDOKULOGO.png")))
         );
@@ -2,9 +2,13 @@ module com.example.demosudoku {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics;
+    requires jdk.jfr;
+    requires java.management;
+    requires jdk.httpserver;
 
 
     opens com.example.fpoe_sudoku to javafx.fxml;
     opens com.example.fpoe_sudoku.controller to javafx.fxml;
     exports com.example.fpoe_sudoku;
+    exports com.example.fpoe_sudoku.monitoring to java.management;
 }
\ No newline at end of file
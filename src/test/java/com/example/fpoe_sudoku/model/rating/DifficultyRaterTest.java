@@ -0,0 +1,29 @@
+package com.example.fpoe_sudoku.model.rating;
+
+import com.example.fpoe_sudoku.model.board.BoardGeometry;
+import com.example.fpoe_sudoku.model.board.PuzzleText;
+import com.example.fpoe_sudoku.model.hint.Technique;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DifficultyRaterTest {
+    // In its first row a naked pair on 7 and 9 only appears after another naked pair of that row
+    // has been applied, and the spent pair is still the first one the search meets.
+    private static final String TWO_PAIRS =
+            "000006530000000040509000620740000091300090000012000304070430006000002050000070000";
+
+    @Test
+    void findsASubsetAfterOneThatRemovesNothing() {
+        BoardGeometry geometry = BoardGeometry.NINE;
+        int[] puzzle = new int[geometry.getCellCount()];
+        PuzzleText.decode(TWO_PAIRS, puzzle);
+
+        Rating rating = new DifficultyRater(geometry).rate(puzzle);
+
+        assertTrue(rating.isSolvedLogically(), rating::toString);
+        assertTrue(rating.getTechniques().contains(Technique.NAKED_SUBSET), rating::toString);
+        assertEquals(Difficulty.HARD, rating.getDifficulty(), rating::toString);
+    }
+}